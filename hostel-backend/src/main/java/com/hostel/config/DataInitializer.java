@@ -20,6 +20,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private com.hostel.service.StudentService studentService;
 
+    @Autowired
+    private com.hostel.service.StudentReconciliationService studentReconciliationService;
+
     @Override
     public void run(String... args) throws Exception {
         // Ensure Admin exists with correct password
@@ -52,5 +55,8 @@ public class DataInitializer implements CommandLineRunner {
             studentService.createStudent(savedStudent.getId());
             System.out.println("Default student user created: john@example.com / student123");
         }
+
+        // Give every STUDENT account a student row up front so the read paths stay read-only
+        studentReconciliationService.reconcile();
     }
 }
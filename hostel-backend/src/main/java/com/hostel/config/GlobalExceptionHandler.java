@@ -1,5 +1,7 @@
 package com.hostel.config;
 
+import com.hostel.security.PasswordHashingExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -20,6 +22,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>("Invalid email or password", HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(PasswordHashingExecutor.HashingCapacityExceededException.class)
+    public ResponseEntity<String> handleHashingCapacityExceeded(PasswordHashingExecutor.HashingCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
         ex.printStackTrace(); // Log the stack trace
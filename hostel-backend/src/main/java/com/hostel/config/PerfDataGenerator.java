@@ -0,0 +1,282 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Fills the embedded "perf" database with a large, repeatable hostel population using batched
+// JDBC inserts. All generated accounts share the password PASSWORD.
+// Runs before DataInitializer, so the accounts without a student row go through startup reconciliation.
+@Component
+@Profile("perf")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PerfDataGenerator implements CommandLineRunner {
+
+    public static final String PASSWORD = "perf123";
+    public static final String EMAIL_DOMAIN = "@perf.hostel";
+
+    private static final String[] BOOKING_STATUSES = {"PENDING", "APPROVED", "REJECTED", "CANCELLED"};
+    private static final int[] BOOKING_WEIGHTS = {15, 50, 25, 10};
+    private static final String[] MAINTENANCE_STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final int[] MAINTENANCE_WEIGHTS = {20, 15, 55, 10};
+    // Single, double, triple and quad rooms
+    private static final int[] CAPACITY_WEIGHTS = {10, 40, 35, 15};
+    private static final String[] ISSUES = {
+            "Leaking tap in the bathroom", "Ceiling fan not working", "Broken window latch",
+            "No hot water", "Tube light flickering", "Door lock jammed", "Wi-Fi not reachable",
+            "Clogged drain", "Power socket sparking", "Bed frame broken"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${perf.data.users:50000}")
+    private int userCount;
+
+    @Value("${perf.data.admins:20}")
+    private int adminCount;
+
+    @Value("${perf.data.students:45000}")
+    private int studentCount;
+
+    @Value("${perf.data.rooms:12000}")
+    private int roomCount;
+
+    @Value("${perf.data.booking-requests:200000}")
+    private int bookingRequestCount;
+
+    @Value("${perf.data.maintenance-requests:200000}")
+    private int maintenanceRequestCount;
+
+    @Value("${perf.data.notices:500}")
+    private int noticeCount;
+
+    @Value("${perf.data.bed-fill-ratio:0.9}")
+    private double bedFillRatio;
+
+    @Value("${perf.data.seed:42}")
+    private long seed;
+
+    @Value("${perf.data.batch-size:1000}")
+    private int batchSize;
+
+    public static String studentEmail(int index) {
+        return "student" + index + EMAIL_DOMAIN;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            System.out.println("Perf data already present (" + existing + " users), skipping generation");
+            return;
+        }
+        if (adminCount + studentCount > userCount) {
+            throw new RuntimeException("perf.data.users must cover perf.data.admins + perf.data.students");
+        }
+
+        long started = System.currentTimeMillis();
+        // One transaction, so an interrupted run never leaves a half-generated population behind
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> generate());
+        System.out.println("Perf data generated in " + (System.currentTimeMillis() - started) + " ms: "
+                + userCount + " users, " + studentCount + " students, " + roomCount + " rooms, "
+                + bookingRequestCount + " booking requests, " + maintenanceRequestCount + " maintenance requests");
+    }
+
+    private void generate() {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> roomIds = insertRooms(random);
+        List<Long> adminIds = insertUsers("admin", adminCount, "ADMIN");
+        List<Long> studentUserIds = insertUsers("student", studentCount, "STUDENT");
+        // Registered accounts that never got a student row
+        insertUsers("applicant", userCount - adminCount - studentCount, "STUDENT");
+
+        List<Long> studentRoomIds = assignBeds(roomIds, random);
+        List<Long> studentIds = insertStudents(studentUserIds, studentRoomIds);
+
+        insertBookingRequests(studentIds, roomIds, random, now);
+        insertMaintenanceRequests(studentIds, studentRoomIds, roomIds, random, now);
+        insertNotices(adminIds, random, now);
+    }
+
+    private List<Long> insertRooms(Random random) {
+        List<Object[]> rows = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            // Blocks of 1000 rooms, 50 rooms per floor: B1-101, B1-102, ... B1-2050, B2-101, ...
+            int block = i / 1000 + 1;
+            int floor = (i % 1000) / 50 + 1;
+            int number = i % 50 + 1;
+            rows.add(new Object[]{"B" + block + "-" + (floor * 100 + number), pick(CAPACITY_WEIGHTS, random) + 1, false});
+        }
+        batchInsert("INSERT INTO rooms (room_number, capacity, occupied) VALUES (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM rooms WHERE room_number LIKE 'B%-%' ORDER BY id", Long.class);
+    }
+
+    private List<Long> insertUsers(String prefix, int count, String role) {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        String label = Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{label + " " + i, prefix + i + EMAIL_DOMAIN, passwordHash, role});
+        }
+        batchInsert("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)", rows);
+        // Inserted in index order, so id order matches the generated index
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class,
+                prefix + "%" + EMAIL_DOMAIN);
+    }
+
+    // Room id per student index (null = no bed), filling bedFillRatio of all beds at random
+    private List<Long> assignBeds(List<Long> roomIds, Random random) {
+        List<Long> beds = new ArrayList<>();
+        List<Integer> capacities = jdbcTemplate.queryForList(
+                "SELECT capacity FROM rooms WHERE room_number LIKE 'B%-%' ORDER BY id", Integer.class);
+        for (int i = 0; i < roomIds.size(); i++) {
+            for (int bed = 0; bed < capacities.get(i); bed++) {
+                beds.add(roomIds.get(i));
+            }
+        }
+        Collections.shuffle(beds, random);
+        int filled = (int) Math.min(studentCount, beds.size() * bedFillRatio);
+
+        List<Long> studentRoomIds = new ArrayList<>(Collections.nCopies(studentCount, (Long) null));
+        List<Integer> order = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        for (int i = 0; i < filled; i++) {
+            studentRoomIds.set(order.get(i), beds.get(i));
+        }
+        return studentRoomIds;
+    }
+
+    private List<Long> insertStudents(List<Long> studentUserIds, List<Long> studentRoomIds) {
+        List<Object[]> rows = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            rows.add(new Object[]{studentUserIds.get(i), studentRoomIds.get(i)});
+        }
+        batchInsert("INSERT INTO students (user_id, room_id) VALUES (?, ?)", rows);
+        return jdbcTemplate.queryForList(
+                "SELECT s.id FROM students s JOIN users u ON u.id = s.user_id WHERE u.email LIKE ? ORDER BY u.id",
+                Long.class, "student%" + EMAIL_DOMAIN);
+    }
+
+    private void insertBookingRequests(List<Long> studentIds, List<Long> roomIds, Random random, LocalDateTime now) {
+        if (studentIds.isEmpty() || roomIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(bookingRequestCount);
+        // At most one pending request per student and room (unique index uk_booking_pending)
+        Set<String> pendingPairs = new HashSet<>();
+        for (int i = 0; i < bookingRequestCount; i++) {
+            Long studentId = studentIds.get(random.nextInt(studentIds.size()));
+            Long roomId = roomIds.get(random.nextInt(roomIds.size()));
+            String status = BOOKING_STATUSES[pick(BOOKING_WEIGHTS, random)];
+            if ("PENDING".equals(status) && !pendingPairs.add(studentId + ":" + roomId)) {
+                status = "CANCELLED";
+            }
+            LocalDateTime createdAt = createdAt(random, now);
+            LocalDateTime resolvedAt = "PENDING".equals(status) ? null : resolvedAt(createdAt, random, now);
+            String remarks = "REJECTED".equals(status) ? "Room unavailable" : null;
+            rows.add(new Object[]{studentId, roomId,
+                    status, Timestamp.valueOf(createdAt), resolvedAt == null ? null : Timestamp.valueOf(resolvedAt), remarks});
+        }
+        batchInsert("INSERT INTO room_booking_requests (student_id, room_id, status, created_at, resolved_at, admin_remarks) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertMaintenanceRequests(List<Long> studentIds, List<Long> studentRoomIds, List<Long> roomIds,
+                                           Random random, LocalDateTime now) {
+        if (studentIds.isEmpty() || roomIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(maintenanceRequestCount);
+        for (int i = 0; i < maintenanceRequestCount; i++) {
+            int student = random.nextInt(studentIds.size());
+            // Students report issues in their own room when they have one
+            Long roomId = studentRoomIds.get(student) != null
+                    ? studentRoomIds.get(student) : roomIds.get(random.nextInt(roomIds.size()));
+            String status = MAINTENANCE_STATUSES[pick(MAINTENANCE_WEIGHTS, random)];
+            LocalDateTime createdAt = createdAt(random, now);
+            boolean resolved = "COMPLETED".equals(status) || "CANCELLED".equals(status);
+            LocalDateTime resolvedAt = resolved ? resolvedAt(createdAt, random, now) : null;
+            String remarks = "COMPLETED".equals(status) ? "Fixed" : null;
+            rows.add(new Object[]{roomId, studentIds.get(student), ISSUES[random.nextInt(ISSUES.length)], status,
+                    Timestamp.valueOf(createdAt), resolvedAt == null ? null : Timestamp.valueOf(resolvedAt), remarks});
+        }
+        batchInsert("INSERT INTO maintenance_requests (room_id, student_id, description, status, created_at, resolved_at, remarks) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertNotices(List<Long> adminIds, Random random, LocalDateTime now) {
+        if (adminIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(noticeCount);
+        for (int i = 0; i < noticeCount; i++) {
+            rows.add(new Object[]{"Notice " + i, "Synthetic notice body " + i, Timestamp.valueOf(createdAt(random, now)),
+                    adminIds.get(random.nextInt(adminIds.size()))});
+        }
+        batchInsert("INSERT INTO notices (title, content, created_at, created_by) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(sql, rows, batchSize, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        });
+    }
+
+    // Last 180 days, skewed towards recent activity
+    private static LocalDateTime createdAt(Random random, LocalDateTime now) {
+        double age = random.nextDouble();
+        return now.minusMinutes((long) (age * age * 180 * 24 * 60));
+    }
+
+    private static LocalDateTime resolvedAt(LocalDateTime createdAt, Random random, LocalDateTime now) {
+        LocalDateTime resolvedAt = createdAt.plusHours(1 + random.nextInt(72));
+        return resolvedAt.isAfter(now) ? now : resolvedAt;
+    }
+
+    private static int pick(int[] weights, Random random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
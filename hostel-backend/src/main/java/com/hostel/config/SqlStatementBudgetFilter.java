@@ -0,0 +1,179 @@
+package com.hostel.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+// Per-request SQL statement accounting. Every request is recorded in the sql.statements.per.request
+// metric and requests over their budget are logged with the most repeated statement; both see every
+// statement of the request. The X-Sql-Statement-Count and X-Sql-Repeated-Statements headers have to
+// be set before the body starts, so they only cover the statements run up to then: lazy loads while
+// the body is serialized are missing from them. Use the metric (or the budget log) for assertions.
+// Budgets: sql.budget.default, overridden per endpoint with
+// sql.budget.endpoints=GET /api/admin/students=3,GET /api/admin/rooms/{id}=4
+// Runs ahead of Spring Security. Statements run while authenticating (the principal lookup on a cache
+// miss) are kept out of the endpoint's count and budget, which would otherwise depend on whether the
+// token's account was cached; they are recorded in sql.statements.authentication.per.request instead.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Sql-Statement-Count";
+    public static final String REPEATED_HEADER = "X-Sql-Repeated-Statements";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultBudget;
+    private final Map<String, Integer> endpointBudgets = new HashMap<>();
+
+    public SqlStatementBudgetFilter(
+            SqlStatementCounter counter,
+            MeterRegistry meterRegistry,
+            @Value("${sql.budget.enabled:true}") boolean enabled,
+            @Value("${sql.budget.default:20}") int defaultBudget,
+            @Value("${sql.budget.endpoints:}") String endpointBudgets) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+        for (String entry : endpointBudgets.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                this.endpointBudgets.put(entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        counter.begin();
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.writeHeaders();
+            SqlStatementCounter.Stats stats = counter.end();
+            record(request, stats);
+        }
+    }
+
+    // Budget for "METHOD /uri/pattern"
+    public int budgetFor(String endpoint) {
+        return endpointBudgets.getOrDefault(endpoint, defaultBudget);
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+        String endpoint = request.getMethod() + " " + uri;
+
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements prepared while serving one HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        if (stats.getAuthenticationCount() > 0) {
+            DistributionSummary.builder("sql.statements.authentication.per.request")
+                    .description("SQL statements prepared while authenticating one HTTP request")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getAuthenticationCount());
+        }
+
+        int budget = budgetFor(endpoint);
+        if (stats.getCount() > budget) {
+            Counter.builder("sql.statements.budget.exceeded")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            Map.Entry<String, Integer> top = stats.getMostRepeated();
+            System.out.println("SQL budget exceeded: " + endpoint + " ran " + stats.getCount()
+                    + " statements (budget " + budget + ", " + stats.getRepeatedCount() + " repeated)"
+                    + (top != null && top.getValue() > 1 ? "; most repeated x" + top.getValue() + ": " + top.getKey() : ""));
+        }
+    }
+
+    // Sets the count headers just before the response is committed, since the body is usually
+    // written (and the headers sent) before control returns to this filter. Statements run after
+    // that point are only in the metric.
+    private class CountingResponse extends HttpServletResponseWrapper {
+        private boolean headersWritten;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            SqlStatementCounter.Stats stats = counter.current();
+            if (stats != null) {
+                setHeader(COUNT_HEADER, String.valueOf(stats.getCount()));
+                setHeader(REPEATED_HEADER, String.valueOf(stats.getRepeatedCount()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts the SQL statements sent on the current thread between begin() and end(), grouped by statement
+// shape (prepared statements are already parameterised, so the text is the shape). The application's
+// DataSource is wrapped, so Hibernate, JdbcTemplate and NamedParameterJdbcTemplate are all counted; a
+// JDBC batch counts once, when its statement is prepared.
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    public void begin() {
+        CURRENT.set(new Stats());
+    }
+
+    // Statements counted so far on this thread, or null outside begin()/end()
+    public Stats current() {
+        return CURRENT.get();
+    }
+
+    // Marks the end of authentication: the statements counted so far (the principal lookup, run only
+    // when the principal cache misses) move to the authentication count and the endpoint's count restarts
+    public void authenticated() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            Stats endpoint = new Stats();
+            endpoint.authenticationCount = stats.authenticationCount + stats.count;
+            CURRENT.set(endpoint);
+        }
+    }
+
+    public Stats end() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats != null ? stats : new Stats();
+    }
+
+    private static void record(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+    }
+
+    public static class Stats {
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+        private int authenticationCount;
+
+        private void record(String sql) {
+            count++;
+            shapes.merge(sql, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // Statements run while authenticating the request, not included in getCount()
+        public int getAuthenticationCount() {
+            return authenticationCount;
+        }
+
+        // Statements that repeated a shape already seen in this request; N+1 loops show up here
+        public int getRepeatedCount() {
+            return count - shapes.size();
+        }
+
+        public Map<String, Integer> getShapes() {
+            return shapes;
+        }
+
+        public Map.Entry<String, Integer> getMostRepeated() {
+            Map.Entry<String, Integer> top = null;
+            for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+                if (top == null || entry.getValue() > top.getValue()) {
+                    top = entry;
+                }
+            }
+            return top;
+        }
+    }
+
+    // A DelegatingDataSource, so Boot's pool metrics still find the Hikari pool behind it
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (name.equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args != null && args[0] instanceof String sql) {
+                            record(sql);
+                        }
+                        Object result = invoke(connection, method, args);
+                        return name.equals("createStatement") ? counting((Statement) result) : result;
+                    });
+        }
+
+        // Plain statements carry their SQL on each execute (JdbcTemplate queries without parameters)
+        private static Statement counting(Statement statement) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (name.equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ((name.startsWith("execute") || name.equals("addBatch")) && args != null && args[0] instanceof String sql) {
+                            record(sql);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -6,10 +6,13 @@ import com.hostel.dto.UserDto;
 import com.hostel.entity.User;
 import com.hostel.service.AuthService;
 import com.hostel.security.JwtUtil;
+import com.hostel.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -21,15 +24,17 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // BCrypt runs on the hashing pool; the Tomcat thread is released until the result is ready
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        AuthResponse response = authService.authenticateUser(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request) {
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.authenticateUser(request)));
     }
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody UserDto userDto) {
-        AuthResponse response = authService.register(userDto);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody UserDto userDto) {
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authService.register(userDto)));
     }
 }
\ No newline at end of file
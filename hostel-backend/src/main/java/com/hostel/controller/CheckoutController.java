@@ -0,0 +1,53 @@
+package com.hostel.controller;
+
+import com.hostel.entity.CheckoutRun;
+import com.hostel.service.CheckoutService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// End-of-term checkout runs: start one, poll its progress, resume one that stopped
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/admin/checkout")
+public class CheckoutController {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @PostMapping
+    public ResponseEntity<?> startCheckout() {
+        try {
+            return ResponseEntity.accepted().body(checkoutService.startCheckout());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<CheckoutRun> getLatestRun() {
+        CheckoutRun run = checkoutService.getLatestRun();
+        if (run != null) {
+            return ResponseEntity.ok(run);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<CheckoutRun> getRun(@PathVariable Long runId) {
+        CheckoutRun run = checkoutService.getRun(runId);
+        if (run != null) {
+            return ResponseEntity.ok(run);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<?> resumeCheckout(@PathVariable Long runId) {
+        try {
+            return ResponseEntity.accepted().body(checkoutService.resumeCheckout(runId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
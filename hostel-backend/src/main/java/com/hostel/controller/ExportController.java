@@ -0,0 +1,64 @@
+package com.hostel.controller;
+
+import com.hostel.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // e.g. GET /api/admin/export/students?format=ndjson&gzip=true
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String dataset,
+                                    @RequestParam(defaultValue = "csv") String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Dataset exportDataset;
+        ExportService.Format exportFormat;
+        try {
+            exportDataset = ExportService.Dataset.from(dataset);
+            exportFormat = ExportService.Format.from(format);
+        } catch (RuntimeException e) {
+            // Only the parameters are checked here; anything else goes to GlobalExceptionHandler.
+            // The streaming return type only carries a body writer, so the message is written through one
+            String text = e.getMessage() != null ? e.getMessage() : "Unsupported export: " + dataset + " as " + format;
+            byte[] message = text.getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so every periodic flush actually reaches the client
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024, true);
+                exportService.export(exportDataset, exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                exportService.export(exportDataset, exportFormat, out);
+            }
+        };
+
+        String extension = exportFormat == ExportService.Format.CSV ? ".csv" : ".ndjson";
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == ExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + exportDataset.getPath() + extension + (gzip ? ".gz" : "") + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+}
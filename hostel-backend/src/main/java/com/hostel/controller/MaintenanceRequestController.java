@@ -2,11 +2,15 @@ package com.hostel.controller;
 
 import com.hostel.dto.MaintenanceRequestDto;
 import com.hostel.entity.MaintenanceRequest;
+import com.hostel.service.DataVersions;
 import com.hostel.service.MaintenanceRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,12 +18,22 @@ import java.util.List;
 @RequestMapping("/api")
 public class MaintenanceRequestController {
 
+    // Request listings embed student and room details
+    private static final DataVersions.Aggregate[] LIST_VERSIONS = {
+            DataVersions.Aggregate.MAINTENANCE_REQUESTS, DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.ROOMS};
+
     @Autowired
     private MaintenanceRequestService maintenanceRequestService;
 
+    @Autowired
+    private DataVersions dataVersions;
+
     // Student endpoints
     @GetMapping("/student/maintenance-requests")
-    public ResponseEntity<List<MaintenanceRequestDto>> getStudentMaintenanceRequests(@RequestParam Long studentId) {
+    public ResponseEntity<List<MaintenanceRequestDto>> getStudentMaintenanceRequests(@RequestParam Long studentId, WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<MaintenanceRequestDto> requests = maintenanceRequestService.getMaintenanceRequestsByStudentId(studentId);
         return ResponseEntity.ok(requests);
     }
@@ -36,21 +50,44 @@ public class MaintenanceRequestController {
 
     // Admin endpoints
     @GetMapping("/admin/maintenance-requests")
-    public ResponseEntity<List<MaintenanceRequestDto>> getAllMaintenanceRequests() {
-        List<MaintenanceRequestDto> requests = maintenanceRequestService.getAllMaintenanceRequests();
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<?> getAllMaintenanceRequests(
+            @RequestParam(required = false) MaintenanceRequest.Status status,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
+        if (unpaged) {
+            List<MaintenanceRequestDto> requests = maintenanceRequestService.getAllMaintenanceRequests();
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok(maintenanceRequestService.getMaintenanceRequestsPage(status, roomId, from, to, cursor, size, direction));
     }
 
     @GetMapping("/admin/maintenance-requests/status/{status}")
     public ResponseEntity<List<MaintenanceRequestDto>> getMaintenanceRequestsByStatus(
-            @PathVariable MaintenanceRequest.Status status) {
+            @PathVariable MaintenanceRequest.Status status,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<MaintenanceRequestDto> requests = maintenanceRequestService.getMaintenanceRequestsByStatus(status);
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/admin/maintenance-requests/room/{roomId}")
     public ResponseEntity<List<MaintenanceRequestDto>> getMaintenanceRequestsByRoom(
-            @PathVariable Long roomId) {
+            @PathVariable Long roomId,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<MaintenanceRequestDto> requests = maintenanceRequestService.getMaintenanceRequestsByRoomId(roomId);
         return ResponseEntity.ok(requests);
     }
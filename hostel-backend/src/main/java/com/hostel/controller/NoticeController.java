@@ -4,9 +4,11 @@ import com.hostel.entity.Notice;
 import com.hostel.entity.User;
 import com.hostel.service.NoticeService;
 import com.hostel.service.AuthService;
+import com.hostel.service.DataVersions;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,15 +17,20 @@ import java.util.List;
 public class NoticeController {
     private final NoticeService noticeService;
     private final AuthService authService;
+    private final DataVersions dataVersions;
 
-    public NoticeController(NoticeService noticeService, AuthService authService) {
+    public NoticeController(NoticeService noticeService, AuthService authService, DataVersions dataVersions) {
         this.noticeService = noticeService;
         this.authService = authService;
+        this.dataVersions = dataVersions;
     }
 
     @GetMapping("")
-    public ResponseEntity<List<Notice>> getAllNotices() {
+    public ResponseEntity<List<Notice>> getAllNotices(WebRequest webRequest) {
         System.out.println("GET /api/notices hit");
+        if (dataVersions.notModified(webRequest, DataVersions.Aggregate.NOTICES)) {
+            return null;
+        }
         try {
             List<Notice> notices = noticeService.getAllNotices();
             System.out.println("Fetched " + notices.size() + " notices");
@@ -1,12 +1,23 @@
 package com.hostel.controller;
 
+import com.hostel.dto.BookingDecisionDto;
+import com.hostel.dto.BookingDecisionReport;
+import com.hostel.dto.BookingTicketDto;
 import com.hostel.dto.RoomBookingRequestDto;
+import com.hostel.dto.SwapCycleReport;
+import com.hostel.dto.SwapMoveDto;
 import com.hostel.entity.RoomBookingRequest;
+import com.hostel.service.BookingDecisionService;
+import com.hostel.service.DataVersions;
 import com.hostel.service.RoomBookingRequestService;
+import com.hostel.service.RoomSwapService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,45 +25,94 @@ import java.util.List;
 @RequestMapping("/api")
 public class RoomBookingRequestController {
 
+    // Request listings embed student and room details
+    private static final DataVersions.Aggregate[] LIST_VERSIONS = {
+            DataVersions.Aggregate.BOOKING_REQUESTS, DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.ROOMS};
+
     @Autowired
     private RoomBookingRequestService roomBookingRequestService;
 
+    @Autowired
+    private BookingDecisionService bookingDecisionService;
+
+    @Autowired
+    private RoomSwapService roomSwapService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
     // Student endpoints
     @GetMapping("/student/room-booking-requests")
-    public ResponseEntity<List<RoomBookingRequestDto>> getStudentBookingRequests(@RequestParam Long studentId) {
+    public ResponseEntity<List<RoomBookingRequestDto>> getStudentBookingRequests(@RequestParam Long studentId, WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<RoomBookingRequestDto> requests = roomBookingRequestService.getBookingRequestsByStudentId(studentId);
         return ResponseEntity.ok(requests);
     }
 
+    // Answers at once with a ticket; the request is placed (PENDING or WAITLISTED) by the booking queue
     @PostMapping("/student/room-booking-requests")
-    public ResponseEntity<RoomBookingRequestDto> createBookingRequest(
+    public ResponseEntity<BookingTicketDto> createBookingRequest(
             @RequestParam Long studentId, 
             @RequestParam Long roomId) {
         try {
-            RoomBookingRequestDto createdRequest = roomBookingRequestService.createBookingRequest(studentId, roomId);
-            return ResponseEntity.ok(createdRequest);
+            BookingTicketDto ticket = roomBookingRequestService.createBookingRequest(studentId, roomId);
+            return ResponseEntity.accepted().body(ticket);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/student/room-booking-requests/{id}/ticket")
+    public ResponseEntity<BookingTicketDto> getBookingTicket(@PathVariable Long id) {
+        BookingTicketDto ticket = roomBookingRequestService.getBookingTicket(id);
+        if (ticket != null) {
+            return ResponseEntity.ok(ticket);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     // Admin endpoints
     @GetMapping("/admin/room-booking-requests")
-    public ResponseEntity<List<RoomBookingRequestDto>> getAllBookingRequests() {
-        List<RoomBookingRequestDto> requests = roomBookingRequestService.getAllBookingRequests();
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<?> getAllBookingRequests(
+            @RequestParam(required = false) RoomBookingRequest.Status status,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
+        if (unpaged) {
+            List<RoomBookingRequestDto> requests = roomBookingRequestService.getAllBookingRequests();
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok(roomBookingRequestService.getBookingRequestsPage(status, roomId, from, to, cursor, size, direction));
     }
 
     @GetMapping("/admin/room-booking-requests/status/{status}")
     public ResponseEntity<List<RoomBookingRequestDto>> getBookingRequestsByStatus(
-            @PathVariable RoomBookingRequest.Status status) {
+            @PathVariable RoomBookingRequest.Status status,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<RoomBookingRequestDto> requests = roomBookingRequestService.getBookingRequestsByStatus(status);
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/admin/room-booking-requests/room/{roomId}")
     public ResponseEntity<List<RoomBookingRequestDto>> getBookingRequestsByRoom(
-            @PathVariable Long roomId) {
+            @PathVariable Long roomId,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<RoomBookingRequestDto> requests = roomBookingRequestService.getBookingRequestsByRoomId(roomId);
         return ResponseEntity.ok(requests);
     }
@@ -82,6 +142,33 @@ public class RoomBookingRequestController {
         }
     }
 
+    // Many decisions at once, e.g. after allocation day; the report has one outcome per request
+    @PostMapping("/admin/room-booking-requests/decisions")
+    public ResponseEntity<?> decideBookingRequests(@RequestBody List<BookingDecisionDto> decisions) {
+        try {
+            BookingDecisionReport report = bookingDecisionService.decide(decisions);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Exchange cycles among open requests; each can be applied without any room going over capacity
+    @GetMapping("/admin/room-booking-requests/swap-cycles")
+    public ResponseEntity<SwapCycleReport> getSwapCycles() {
+        return ResponseEntity.ok(roomSwapService.findSwapCycles());
+    }
+
+    @PostMapping("/admin/room-booking-requests/swap-cycles/apply")
+    public ResponseEntity<?> applySwap(@RequestBody List<Long> requestIds) {
+        try {
+            List<SwapMoveDto> moves = roomSwapService.applySwap(requestIds);
+            return ResponseEntity.ok(moves);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/admin/room-booking-requests/{id}")
     public ResponseEntity<Void> deleteBookingRequest(@PathVariable Long id) {
         roomBookingRequestService.deleteBookingRequest(id);
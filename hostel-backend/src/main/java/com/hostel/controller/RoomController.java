@@ -1,35 +1,110 @@
 package com.hostel.controller;
 
+import com.hostel.dto.AutoAllocationReport;
 import com.hostel.dto.RoomDto;
 import com.hostel.entity.Room;
+import com.hostel.service.AssignmentHistoryService;
+import com.hostel.service.DataVersions;
+import com.hostel.service.ImportRowReader;
+import com.hostel.service.RoomAllocationService;
+import com.hostel.service.RoomAvailabilityBroadcaster;
+import com.hostel.service.RoomImportService;
 import com.hostel.service.RoomService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @CrossOrigin(origins = "*")
 @RequestMapping("/api")
 public class RoomController {
 
+    // Room listings embed their occupants
+    private static final DataVersions.Aggregate[] LIST_VERSIONS = {
+            DataVersions.Aggregate.ROOMS, DataVersions.Aggregate.STUDENTS};
+
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private RoomImportService roomImportService;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private RoomAvailabilityBroadcaster roomAvailabilityBroadcaster;
+
     @GetMapping("/admin/rooms")
-    public ResponseEntity<List<RoomDto>> getAllRooms() {
-        List<RoomDto> rooms = roomService.getAllRooms();
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<?> getAllRooms(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
+        if (unpaged) {
+            List<RoomDto> rooms = roomService.getAllRooms();
+            return ResponseEntity.ok(rooms);
+        }
+        return ResponseEntity.ok(roomService.getRoomsPage(cursor, size, direction));
     }
 
     @GetMapping("/student/rooms")
-    public ResponseEntity<List<RoomDto>> getAvailableRooms() {
+    public ResponseEntity<List<RoomDto>> getAvailableRooms(WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
         List<RoomDto> rooms = roomService.getAvailableRooms();
         return ResponseEntity.ok(rooms);
     }
 
+    // Live availability: a "snapshot" event with every room, then "delta" events as occupancy changes
+    @GetMapping(value = "/student/rooms/availability", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability() {
+        return roomAvailabilityBroadcaster.subscribe();
+    }
+
+    @PostMapping("/admin/rooms/occupancy-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildOccupancyIndex() {
+        return ResponseEntity.ok(roomService.verifyOccupancyIndex());
+    }
+
+    // Occupancy of every room at a point in time (ISO date-time, default now)
+    @GetMapping("/admin/rooms/occupancy")
+    public ResponseEntity<?> getOccupancySnapshot(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(assignmentHistoryService.getSnapshot(at != null ? at : LocalDateTime.now()));
+    }
+
+    @GetMapping("/admin/rooms/{roomId}/occupants")
+    public ResponseEntity<?> getOccupantsAt(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(assignmentHistoryService.getRoomOccupantsAt(roomId, at != null ? at : LocalDateTime.now()));
+    }
+
     @GetMapping("/admin/rooms/{id}")
     public ResponseEntity<RoomDto> getRoomById(@PathVariable Long id) {
         RoomDto room = roomService.getRoomById(id);
@@ -49,6 +124,44 @@ public class RoomController {
         }
     }
 
+    // Bulk import: a CSV (roomNumber,capacity with an optional header) or JSON array as the request body
+    @PostMapping(value = "/admin/rooms/import", consumes = {"text/csv", "text/plain", "application/json"})
+    public ResponseEntity<?> importRooms(InputStream body,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                         @RequestParam(required = false) String format) {
+        try {
+            ImportRowReader.Format importFormat = ImportRowReader.Format.from(format, null, contentType);
+            return ResponseEntity.ok(roomImportService.importRooms(body, importFormat));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Same import from a browser upload (multipart field "file")
+    @PostMapping(value = "/admin/rooms/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importRoomsFile(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(required = false) String format) {
+        try (InputStream in = file.getInputStream()) {
+            ImportRowReader.Format importFormat = ImportRowReader.Format.from(format, file.getOriginalFilename(), file.getContentType());
+            return ResponseEntity.ok(roomImportService.importRooms(in, importFormat));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Could not read uploaded file");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Places every student without a room using best-fit packing; dryRun (the default) only returns the plan
+    @PostMapping("/admin/rooms/auto-allocate")
+    public ResponseEntity<?> autoAllocate(@RequestParam(defaultValue = "true") boolean dryRun) {
+        try {
+            AutoAllocationReport report = dryRun ? roomAllocationService.previewAutoAllocation() : roomAllocationService.autoAllocate();
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/admin/rooms/{id}")
     public ResponseEntity<?> updateRoom(@PathVariable Long id, @Valid @RequestBody RoomDto roomDto) {
         try {
@@ -69,12 +182,16 @@ public class RoomController {
     }
 
     @PutMapping("/admin/rooms/{roomId}/allocate/{studentId}")
-    public ResponseEntity<RoomDto> allocateRoomToStudent(@PathVariable Long roomId, @PathVariable Long studentId) {
-        RoomDto room = roomService.allocateRoomToStudent(roomId, studentId);
-        if (room != null) {
-            return ResponseEntity.ok(room);
+    public ResponseEntity<?> allocateRoomToStudent(@PathVariable Long roomId, @PathVariable Long studentId) {
+        try {
+            RoomDto room = roomService.allocateRoomToStudent(roomId, studentId);
+            if (room != null) {
+                return ResponseEntity.ok(room);
+            }
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.badRequest().build();
     }
 
     @PutMapping("/admin/rooms/{roomId}/deallocate")
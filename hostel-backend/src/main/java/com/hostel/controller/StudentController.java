@@ -1,15 +1,27 @@
 package com.hostel.controller;
 
 import com.hostel.dto.StudentDto;
+import com.hostel.dto.StudentImportProgress;
 import com.hostel.entity.User;
 import com.hostel.repository.UserRepository;
+import com.hostel.security.AuthenticatedUser;
+import com.hostel.service.AssignmentHistoryService;
+import com.hostel.service.DataVersions;
+import com.hostel.service.ImportRowReader;
+import com.hostel.service.StudentImportService;
 import com.hostel.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,17 +29,42 @@ import java.util.List;
 @RequestMapping("/api")
 public class StudentController {
 
+    // Student listings embed the room and its occupancy
+    private static final DataVersions.Aggregate[] LIST_VERSIONS = {
+            DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.ROOMS};
+
     @Autowired
     private StudentService studentService;
+
+    @Autowired
+    private StudentImportService studentImportService;
     
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
     // Admin endpoints
     @GetMapping("/admin/students")
-    public ResponseEntity<List<StudentDto>> getAllStudents() {
-        List<StudentDto> students = studentService.getAllStudentsWithUsers();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, LIST_VERSIONS)) {
+            return null;
+        }
+        if (unpaged) {
+            List<StudentDto> students = studentService.getAllStudentsWithUsers();
+            return ResponseEntity.ok(students);
+        }
+        return ResponseEntity.ok(studentService.getStudentsPage(roomId, cursor, size, direction));
     }
 
     @GetMapping("/admin/students/{id}")
@@ -39,6 +76,48 @@ public class StudentController {
         return ResponseEntity.notFound().build();
     }
 
+    // Bulk registration: a CSV (name,email,password with an optional header) or JSON array as the request body.
+    // Answers 202 with a job id; poll GET /admin/students/import/{jobId} for progress and the per-row report.
+    @PostMapping(value = "/admin/students/import", consumes = {"text/csv", "text/plain", "application/json"})
+    public ResponseEntity<?> importStudents(InputStream body,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                            @RequestParam(required = false) String format) {
+        try {
+            ImportRowReader.Format importFormat = ImportRowReader.Format.from(format, null, contentType);
+            return ResponseEntity.accepted().body(studentImportService.startImport(body, importFormat));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Same import from a browser upload (multipart field "file")
+    @PostMapping(value = "/admin/students/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importStudentsFile(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(required = false) String format) {
+        try (InputStream in = file.getInputStream()) {
+            ImportRowReader.Format importFormat = ImportRowReader.Format.from(format, file.getOriginalFilename(), file.getContentType());
+            return ResponseEntity.accepted().body(studentImportService.startImport(in, importFormat));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Could not read uploaded file");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/admin/students/import/{jobId}")
+    public ResponseEntity<StudentImportProgress> getImportProgress(@PathVariable String jobId) {
+        StudentImportProgress progress = studentImportService.getProgress(jobId);
+        if (progress != null) {
+            return ResponseEntity.ok(progress);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/admin/students/{id}/room-history")
+    public ResponseEntity<?> getRoomHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(assignmentHistoryService.getStudentHistory(id));
+    }
+
     @PostMapping("/admin/students/{userId}")
     public ResponseEntity<StudentDto> createStudent(@PathVariable Long userId) {
         StudentDto student = studentService.createStudent(userId);
@@ -65,9 +144,22 @@ public class StudentController {
 
     // Student endpoints
     @GetMapping("/student/profile")
-    public ResponseEntity<StudentDto> getStudentProfile() {
+    public ResponseEntity<StudentDto> getStudentProfile(WebRequest webRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
+            // Stateless tokens already carry the user id
+            if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+                // Same URL for every student, so the tag is scoped to the caller
+                if (dataVersions.notModified(webRequest, "u" + principal.getUserId(), LIST_VERSIONS)) {
+                    return null;
+                }
+                StudentDto student = studentService.getStudentDtoByUserId(principal.getUserId());
+                if (student != null) {
+                    return ResponseEntity.ok(student);
+                }
+                // No student row yet; the next login creates it
+                return ResponseEntity.notFound().build();
+            }
             String email = authentication.getName();
             User user = userRepository.findByEmail(email).orElse(null);
             if (user != null) {
@@ -75,6 +167,7 @@ public class StudentController {
                 if (student != null) {
                     return ResponseEntity.ok(student);
                 }
+                return ResponseEntity.notFound().build();
             }
         }
         return ResponseEntity.status(401).build();
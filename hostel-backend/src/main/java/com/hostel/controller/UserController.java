@@ -1,10 +1,17 @@
 package com.hostel.controller;
 
+import com.hostel.entity.Role;
 import com.hostel.entity.User;
 import com.hostel.repository.UserRepository;
+import com.hostel.service.DataVersions;
+import com.hostel.service.KeysetPaging;
+import com.hostel.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,10 +23,33 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (dataVersions.notModified(webRequest, DataVersions.Aggregate.USERS)) {
+            return null;
+        }
+        if (unpaged) {
+            List<User> users = userRepository.findAll();
+            return ResponseEntity.ok(users);
+        }
+        Sort.Direction sortDirection = KeysetPaging.direction(direction, Sort.Direction.ASC);
+        Slice<User> slice = userRepository.findSlice(role,
+                KeysetPaging.afterId(cursor, sortDirection),
+                KeysetPaging.beforeId(cursor, sortDirection),
+                KeysetPaging.firstSlice(size, sortDirection));
+        return ResponseEntity.ok(KeysetPaging.toPage(slice, slice.getContent(), User::getId));
     }
 
     @GetMapping("/users/{id}")
@@ -31,10 +61,9 @@ public class UserController {
 
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
+        if (userService.deleteUser(id)) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.hostel.dto;
+
+import java.time.LocalDateTime;
+
+public class AssignmentIntervalDto {
+    private Long studentId;
+    private String studentName;
+    private Long roomId;
+    private String roomNumber;
+    // Null when the assignment started before assignment history was recorded
+    private LocalDateTime assignedAt;
+    // Null while the assignment is current
+    private LocalDateTime vacatedAt;
+
+    public AssignmentIntervalDto() {}
+
+    public AssignmentIntervalDto(Long studentId, String studentName, Long roomId, String roomNumber,
+                                 LocalDateTime assignedAt, LocalDateTime vacatedAt) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.assignedAt = assignedAt;
+        this.vacatedAt = vacatedAt;
+    }
+
+    // Getters and Setters
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public void setAssignedAt(LocalDateTime assignedAt) { this.assignedAt = assignedAt; }
+
+    public LocalDateTime getVacatedAt() { return vacatedAt; }
+    public void setVacatedAt(LocalDateTime vacatedAt) { this.vacatedAt = vacatedAt; }
+}
@@ -0,0 +1,41 @@
+package com.hostel.dto;
+
+import java.util.List;
+
+public class AutoAllocationReport {
+    private boolean dryRun;
+    private int waitingStudents;
+    private long freeBeds;
+    private int assigned;
+    private int unassigned;
+    private int roomsUsed;
+    private double planMillis;
+    private List<RoomAssignmentDto> assignments;
+
+    public AutoAllocationReport() {}
+
+    // Getters and Setters
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+
+    public int getWaitingStudents() { return waitingStudents; }
+    public void setWaitingStudents(int waitingStudents) { this.waitingStudents = waitingStudents; }
+
+    public long getFreeBeds() { return freeBeds; }
+    public void setFreeBeds(long freeBeds) { this.freeBeds = freeBeds; }
+
+    public int getAssigned() { return assigned; }
+    public void setAssigned(int assigned) { this.assigned = assigned; }
+
+    public int getUnassigned() { return unassigned; }
+    public void setUnassigned(int unassigned) { this.unassigned = unassigned; }
+
+    public int getRoomsUsed() { return roomsUsed; }
+    public void setRoomsUsed(int roomsUsed) { this.roomsUsed = roomsUsed; }
+
+    public double getPlanMillis() { return planMillis; }
+    public void setPlanMillis(double planMillis) { this.planMillis = planMillis; }
+
+    public List<RoomAssignmentDto> getAssignments() { return assignments; }
+    public void setAssignments(List<RoomAssignmentDto> assignments) { this.assignments = assignments; }
+}
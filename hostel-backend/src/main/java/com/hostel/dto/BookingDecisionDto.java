@@ -0,0 +1,28 @@
+package com.hostel.dto;
+
+import com.hostel.entity.RoomBookingRequest;
+
+public class BookingDecisionDto {
+    private Long id;
+    // APPROVED, REJECTED or CANCELLED
+    private RoomBookingRequest.Status status;
+    private String adminRemarks;
+
+    public BookingDecisionDto() {}
+
+    public BookingDecisionDto(Long id, RoomBookingRequest.Status status, String adminRemarks) {
+        this.id = id;
+        this.status = status;
+        this.adminRemarks = adminRemarks;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RoomBookingRequest.Status getStatus() { return status; }
+    public void setStatus(RoomBookingRequest.Status status) { this.status = status; }
+
+    public String getAdminRemarks() { return adminRemarks; }
+    public void setAdminRemarks(String adminRemarks) { this.adminRemarks = adminRemarks; }
+}
@@ -0,0 +1,42 @@
+package com.hostel.dto;
+
+import java.util.List;
+
+public class BookingDecisionReport {
+    private int approved;
+    private int rejected;
+    private int cancelled;
+    private int roomFull;
+    private int notFound;
+    private int skipped;
+    // Other pending requests rejected because their room filled up
+    private int autoRejected;
+    private List<BookingDecisionResult> items;
+
+    public BookingDecisionReport() {}
+
+    // Getters and Setters
+    public int getApproved() { return approved; }
+    public void setApproved(int approved) { this.approved = approved; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public int getCancelled() { return cancelled; }
+    public void setCancelled(int cancelled) { this.cancelled = cancelled; }
+
+    public int getRoomFull() { return roomFull; }
+    public void setRoomFull(int roomFull) { this.roomFull = roomFull; }
+
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+
+    public int getAutoRejected() { return autoRejected; }
+    public void setAutoRejected(int autoRejected) { this.autoRejected = autoRejected; }
+
+    public List<BookingDecisionResult> getItems() { return items; }
+    public void setItems(List<BookingDecisionResult> items) { this.items = items; }
+}
@@ -0,0 +1,36 @@
+package com.hostel.dto;
+
+public class BookingDecisionResult {
+
+    // ROOM_FULL: the approval did not fit and the request was rejected; SKIPPED: left unchanged (see message)
+    public enum Outcome {
+        APPROVED, REJECTED, CANCELLED, ROOM_FULL, NOT_FOUND, SKIPPED
+    }
+
+    private Long id;
+    private Long roomId;
+    private Outcome outcome;
+    private String message;
+
+    public BookingDecisionResult() {}
+
+    public BookingDecisionResult(Long id, Long roomId, Outcome outcome, String message) {
+        this.id = id;
+        this.roomId = roomId;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public Outcome getOutcome() { return outcome; }
+    public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,34 @@
+package com.hostel.dto;
+
+import com.hostel.entity.RoomBookingRequest;
+
+public class BookingTicketDto {
+    // The booking request's id
+    private Long ticketId;
+    private Long roomId;
+    private RoomBookingRequest.Status status;
+    // 1-based place in the intake queue while QUEUED, or in the room's waitlist while WAITLISTED; null otherwise
+    private Long position;
+
+    public BookingTicketDto() {}
+
+    public BookingTicketDto(Long ticketId, Long roomId, RoomBookingRequest.Status status, Long position) {
+        this.ticketId = ticketId;
+        this.roomId = roomId;
+        this.status = status;
+        this.position = position;
+    }
+
+    // Getters and Setters
+    public Long getTicketId() { return ticketId; }
+    public void setTicketId(Long ticketId) { this.ticketId = ticketId; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public RoomBookingRequest.Status getStatus() { return status; }
+    public void setStatus(RoomBookingRequest.Status status) { this.status = status; }
+
+    public Long getPosition() { return position; }
+    public void setPosition(Long position) { this.position = position; }
+}
@@ -0,0 +1,58 @@
+package com.hostel.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OccupancySnapshotDto {
+    private LocalDateTime at;
+    private long occupants;
+    // Only rooms that had at least one occupant at that time
+    private List<RoomOccupancy> rooms;
+
+    public OccupancySnapshotDto() {}
+
+    public OccupancySnapshotDto(LocalDateTime at, long occupants, List<RoomOccupancy> rooms) {
+        this.at = at;
+        this.occupants = occupants;
+        this.rooms = rooms;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getAt() { return at; }
+    public void setAt(LocalDateTime at) { this.at = at; }
+
+    public long getOccupants() { return occupants; }
+    public void setOccupants(long occupants) { this.occupants = occupants; }
+
+    public List<RoomOccupancy> getRooms() { return rooms; }
+    public void setRooms(List<RoomOccupancy> rooms) { this.rooms = rooms; }
+
+    public static class RoomOccupancy {
+        private Long roomId;
+        // Null when the room has since been deleted
+        private String roomNumber;
+        private Integer capacity;
+        private long occupancy;
+
+        public RoomOccupancy() {}
+
+        public RoomOccupancy(Long roomId, String roomNumber, Integer capacity, long occupancy) {
+            this.roomId = roomId;
+            this.roomNumber = roomNumber;
+            this.capacity = capacity;
+            this.occupancy = occupancy;
+        }
+
+        public Long getRoomId() { return roomId; }
+        public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+        public String getRoomNumber() { return roomNumber; }
+        public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+        public Integer getCapacity() { return capacity; }
+        public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+        public long getOccupancy() { return occupancy; }
+        public void setOccupancy(long occupancy) { this.occupancy = occupancy; }
+    }
+}
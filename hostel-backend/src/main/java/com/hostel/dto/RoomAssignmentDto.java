@@ -0,0 +1,25 @@
+package com.hostel.dto;
+
+public class RoomAssignmentDto {
+    private Long studentId;
+    private Long roomId;
+    private String roomNumber;
+
+    public RoomAssignmentDto() {}
+
+    public RoomAssignmentDto(Long studentId, Long roomId, String roomNumber) {
+        this.studentId = studentId;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+    }
+
+    // Getters and Setters
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+}
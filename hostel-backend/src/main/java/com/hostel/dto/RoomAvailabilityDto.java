@@ -0,0 +1,36 @@
+package com.hostel.dto;
+
+public class RoomAvailabilityDto {
+    private Long roomId;
+    private String roomNumber;
+    private int occupancy;
+    private int capacity;
+    // Set when the room was deleted; occupancy and capacity are then 0
+    private boolean removed;
+
+    public RoomAvailabilityDto() {}
+
+    public RoomAvailabilityDto(Long roomId, String roomNumber, int occupancy, int capacity, boolean removed) {
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.occupancy = occupancy;
+        this.capacity = capacity;
+        this.removed = removed;
+    }
+
+    // Getters and Setters
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public int getOccupancy() { return occupancy; }
+    public void setOccupancy(int occupancy) { this.occupancy = occupancy; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public boolean isRemoved() { return removed; }
+    public void setRemoved(boolean removed) { this.removed = removed; }
+}
@@ -0,0 +1,36 @@
+package com.hostel.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RoomImportReport {
+    private int total;
+    private int created;
+    private int failed;
+    private List<RoomImportRow> rows = new ArrayList<>();
+
+    public RoomImportReport() {}
+
+    public void add(RoomImportRow row) {
+        rows.add(row);
+        total++;
+        if (row.getRoomId() != null) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<RoomImportRow> getRows() { return rows; }
+    public void setRows(List<RoomImportRow> rows) { this.rows = rows; }
+}
@@ -0,0 +1,35 @@
+package com.hostel.dto;
+
+public class RoomImportRow {
+    private int row;
+    private String roomNumber;
+    private Integer capacity;
+    private Long roomId;
+    private String error;
+
+    public RoomImportRow() {}
+
+    public RoomImportRow(int row, String roomNumber, Integer capacity) {
+        this.row = row;
+        this.roomNumber = roomNumber;
+        this.capacity = capacity;
+    }
+
+    public boolean isCreated() { return roomId != null; }
+
+    // Getters and Setters
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,37 @@
+package com.hostel.dto;
+
+public class StudentImportRow {
+    private int row;
+    private String name;
+    private String email;
+    private Long userId;
+    private Long studentId;
+    private String error;
+
+    public StudentImportRow() {}
+
+    public StudentImportRow(int row, String name, String email) {
+        this.row = row;
+        this.name = name;
+        this.email = email;
+    }
+
+    // Getters and Setters
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,35 @@
+package com.hostel.dto;
+
+import java.util.List;
+
+public class SwapCycleReport {
+    // Open requests from a student who has a room, for another room
+    private int requestsConsidered;
+    private int cycleCount;
+    private int twoCycles;
+    private int studentsInCycles;
+    private double findMillis;
+    // Each cycle lists its moves in order; every move goes into the room the next one leaves
+    private List<List<SwapMoveDto>> cycles;
+
+    public SwapCycleReport() {}
+
+    // Getters and Setters
+    public int getRequestsConsidered() { return requestsConsidered; }
+    public void setRequestsConsidered(int requestsConsidered) { this.requestsConsidered = requestsConsidered; }
+
+    public int getCycleCount() { return cycleCount; }
+    public void setCycleCount(int cycleCount) { this.cycleCount = cycleCount; }
+
+    public int getTwoCycles() { return twoCycles; }
+    public void setTwoCycles(int twoCycles) { this.twoCycles = twoCycles; }
+
+    public int getStudentsInCycles() { return studentsInCycles; }
+    public void setStudentsInCycles(int studentsInCycles) { this.studentsInCycles = studentsInCycles; }
+
+    public double getFindMillis() { return findMillis; }
+    public void setFindMillis(double findMillis) { this.findMillis = findMillis; }
+
+    public List<List<SwapMoveDto>> getCycles() { return cycles; }
+    public void setCycles(List<List<SwapMoveDto>> cycles) { this.cycles = cycles; }
+}
@@ -0,0 +1,46 @@
+package com.hostel.dto;
+
+public class SwapMoveDto {
+    private Long requestId;
+    private Long studentId;
+    private String studentName;
+    private Long fromRoomId;
+    private String fromRoomNumber;
+    private Long toRoomId;
+    private String toRoomNumber;
+
+    public SwapMoveDto() {}
+
+    public SwapMoveDto(Long requestId, Long studentId, String studentName, Long fromRoomId, String fromRoomNumber,
+                       Long toRoomId, String toRoomNumber) {
+        this.requestId = requestId;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.fromRoomId = fromRoomId;
+        this.fromRoomNumber = fromRoomNumber;
+        this.toRoomId = toRoomId;
+        this.toRoomNumber = toRoomNumber;
+    }
+
+    // Getters and Setters
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+
+    public Long getFromRoomId() { return fromRoomId; }
+    public void setFromRoomId(Long fromRoomId) { this.fromRoomId = fromRoomId; }
+
+    public String getFromRoomNumber() { return fromRoomNumber; }
+    public void setFromRoomNumber(String fromRoomNumber) { this.fromRoomNumber = fromRoomNumber; }
+
+    public Long getToRoomId() { return toRoomId; }
+    public void setToRoomId(Long toRoomId) { this.toRoomId = toRoomId; }
+
+    public String getToRoomNumber() { return toRoomNumber; }
+    public void setToRoomNumber(String toRoomNumber) { this.toRoomNumber = toRoomNumber; }
+}
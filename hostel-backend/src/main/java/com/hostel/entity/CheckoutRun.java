@@ -0,0 +1,65 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Progress of an end-of-term checkout. lastRoomId is committed together with each chunk,
+// so a run that stopped part way resumes after the last room it finished.
+@Entity
+@Table(name = "checkout_runs")
+public class CheckoutRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "total_rooms", nullable = false)
+    private long totalRooms;
+
+    @Column(name = "rooms_processed", nullable = false)
+    private long roomsProcessed;
+
+    @Column(name = "students_vacated", nullable = false)
+    private long studentsVacated;
+
+    @Column(name = "last_room_id")
+    private Long lastRoomId;
+
+    private String message;
+
+    public enum Status {
+        RUNNING, INTERRUPTED, COMPLETED, FAILED
+    }
+
+    public CheckoutRun() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public long getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(long totalRooms) { this.totalRooms = totalRooms; }
+    public long getRoomsProcessed() { return roomsProcessed; }
+    public void setRoomsProcessed(long roomsProcessed) { this.roomsProcessed = roomsProcessed; }
+    public long getStudentsVacated() { return studentsVacated; }
+    public void setStudentsVacated(long studentsVacated) { this.studentsVacated = studentsVacated; }
+    public Long getLastRoomId() { return lastRoomId; }
+    public void setLastRoomId(Long lastRoomId) { this.lastRoomId = lastRoomId; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "maintenance_requests")
+@Table(name = "maintenance_requests", indexes = {
+    @Index(name = "idx_maintenance_status_id", columnList = "status, id"),
+    @Index(name = "idx_maintenance_room_id", columnList = "room_id, id"),
+    @Index(name = "idx_maintenance_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_maintenance_status_created", columnList = "status, created_at")
+})
 public class MaintenanceRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
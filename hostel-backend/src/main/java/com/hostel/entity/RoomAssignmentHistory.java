@@ -0,0 +1,64 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One ended room assignment, valid from assignedAt (null if it started before this was recorded)
+// until vacatedAt. Together with students.assigned_at for current assignments this answers as-of
+// questions; the indexes let both per-room/per-student and whole-hostel lookups use range scans.
+// Plain id columns rather than relations, so history outlives the students and rooms it refers to.
+@Entity
+@Table(name = "room_assignment_history", indexes = {
+    @Index(name = "idx_history_room_vacated", columnList = "room_id, vacated_at"),
+    @Index(name = "idx_history_student_vacated", columnList = "student_id, vacated_at"),
+    // Whole-hostel snapshots: recent points in time scan on vacated_at, old ones on assigned_at
+    @Index(name = "idx_history_vacated_assigned", columnList = "vacated_at, assigned_at"),
+    @Index(name = "idx_history_assigned_vacated", columnList = "assigned_at, vacated_at")
+})
+public class RoomAssignmentHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "assigned_at")
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime assignedAt;
+
+    @Column(name = "vacated_at", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime vacatedAt;
+
+    // Set when the assignment was ended by an end-of-term checkout run
+    @Column(name = "checkout_run_id")
+    private Long checkoutRunId;
+
+    public RoomAssignmentHistory() {}
+
+    public RoomAssignmentHistory(Long id, Long studentId, Long roomId, LocalDateTime assignedAt, LocalDateTime vacatedAt, Long checkoutRunId) {
+        this.id = id;
+        this.studentId = studentId;
+        this.roomId = roomId;
+        this.assignedAt = assignedAt;
+        this.vacatedAt = vacatedAt;
+        this.checkoutRunId = checkoutRunId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public void setAssignedAt(LocalDateTime assignedAt) { this.assignedAt = assignedAt; }
+    public LocalDateTime getVacatedAt() { return vacatedAt; }
+    public void setVacatedAt(LocalDateTime vacatedAt) { this.vacatedAt = vacatedAt; }
+    public Long getCheckoutRunId() { return checkoutRunId; }
+    public void setCheckoutRunId(Long checkoutRunId) { this.checkoutRunId = checkoutRunId; }
+}
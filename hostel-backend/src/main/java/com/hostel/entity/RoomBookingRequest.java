@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "room_booking_requests")
+@Table(name = "room_booking_requests", indexes = {
+    @Index(name = "idx_booking_status_id", columnList = "status, id"),
+    @Index(name = "idx_booking_room_id", columnList = "room_id, id"),
+    @Index(name = "idx_booking_room_status", columnList = "room_id, status"),
+    @Index(name = "idx_booking_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_booking_status_created", columnList = "status, created_at"),
+    @Index(name = "uk_booking_pending", columnList = "student_id, room_id, pending_flag", unique = true)
+})
 public class RoomBookingRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,8 +37,25 @@ public class RoomBookingRequest {
     
     private String adminRemarks;
 
+    // Place in the room's waitlist as the booking queue drew it (arrival or lottery order), so a restart rebuilds the same order
+    @Column(name = "waitlist_position")
+    private Long waitlistPosition;
+
+    // When the request last became PENDING (placed with a free bed or promoted from the waitlist); the expiry
+    // sweeper measures a PENDING request's age from here, since the time spent waitlisted was not the admin's
+    @Column(name = "pending_since")
+    private LocalDateTime pendingSince;
+
+    // Computed by the database: 1 while the request is open (queued, pending or waitlisted), NULL otherwise. NULLs never
+    // collide in a unique index, so uk_booking_pending allows any number of resolved requests but one open request per student and room.
+    @Column(name = "pending_flag", insertable = false, updatable = false,
+            columnDefinition = "TINYINT GENERATED ALWAYS AS (CASE WHEN status IN ('QUEUED', 'PENDING', 'WAITLISTED') THEN 1 END)")
+    private Integer pendingFlag;
+
+    // QUEUED: accepted by the booking queue, not yet placed. PENDING holds a bed until an admin decides;
+    // WAITLISTED waits for a bed in the room and is promoted to PENDING when one frees up.
     public enum Status {
-        PENDING, APPROVED, REJECTED, CANCELLED
+        PENDING, APPROVED, REJECTED, CANCELLED, QUEUED, WAITLISTED
     }
 
     public RoomBookingRequest() {}
@@ -83,4 +107,9 @@ public class RoomBookingRequest {
     public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
     public String getAdminRemarks() { return adminRemarks; }
     public void setAdminRemarks(String adminRemarks) { this.adminRemarks = adminRemarks; }
+    public Long getWaitlistPosition() { return waitlistPosition; }
+    public void setWaitlistPosition(Long waitlistPosition) { this.waitlistPosition = waitlistPosition; }
+
+    public LocalDateTime getPendingSince() { return pendingSince; }
+    public void setPendingSince(LocalDateTime pendingSince) { this.pendingSince = pendingSince; }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.hostel.entity;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_room_id", columnList = "room_id, id")
+}, uniqueConstraints = {
+    // One student row per account, so concurrent creation of a missing row cannot duplicate it
+    @UniqueConstraint(name = "uk_students_user_id", columnNames = "user_id")
+})
 public class Student {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +23,11 @@ public class Student {
     @JoinColumn(name = "room_id")
     private Room room;
 
+    // When the current room assignment started; null for assignments made before this was recorded.
+    // Ended assignments move to room_assignment_history.
+    @Column(name = "assigned_at")
+    private LocalDateTime assignedAt;
+
     public Student() {}
 
     public Student(Long id, User user, Room room) {
@@ -46,4 +57,6 @@ public class Student {
     public void setUser(User user) { this.user = user; }
     public Room getRoom() { return room; }
     public void setRoom(Room room) { this.room = room; }
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public void setAssignedAt(LocalDateTime assignedAt) { this.assignedAt = assignedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.hostel.repository;
+
+import com.hostel.entity.CheckoutRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CheckoutRunRepository extends JpaRepository<CheckoutRun, Long> {
+    CheckoutRun findFirstByOrderByIdDesc();
+
+    List<CheckoutRun> findByStatus(CheckoutRun.Status status);
+}
@@ -1,16 +1,26 @@
 package com.hostel.repository;
 
 import com.hostel.entity.MaintenanceRequest;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long> {
     List<MaintenanceRequest> findByStudentId(Long studentId);
+
+    // The unpaged admin listing maps student, user and room of every row
+    @Query("SELECT m FROM MaintenanceRequest m JOIN FETCH m.student s LEFT JOIN FETCH s.user LEFT JOIN FETCH m.room")
+    List<MaintenanceRequest> findAll();
     
     List<MaintenanceRequest> findByStatus(MaintenanceRequest.Status status);
     
@@ -22,4 +32,18 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
     
     @Query("SELECT m FROM MaintenanceRequest m JOIN m.student s JOIN s.user u WHERE u.id = :userId")
     List<MaintenanceRequest> findByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+    
+    @Query("SELECT m FROM MaintenanceRequest m JOIN FETCH m.student s LEFT JOIN FETCH s.user JOIN FETCH m.room " +
+           "WHERE (:status IS NULL OR m.status = :status) AND (:roomId IS NULL OR m.room.id = :roomId) " +
+           "AND (:from IS NULL OR m.createdAt >= :from) AND (:to IS NULL OR m.createdAt < :to) " +
+           "AND (:afterId IS NULL OR m.id > :afterId) AND (:beforeId IS NULL OR m.id < :beforeId)")
+    Slice<MaintenanceRequest> findSlice(@Param("status") MaintenanceRequest.Status status, @Param("roomId") Long roomId,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("afterId") Long afterId, @Param("beforeId") Long beforeId, Pageable pageable);
+    
+    // Export rows: [id, studentId, studentName, roomId, roomNumber, description, status, createdAt, resolvedAt, remarks]
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT m.id, s.id, u.name, rm.id, rm.roomNumber, m.description, m.status, m.createdAt, m.resolvedAt, m.remarks "
+            + "FROM MaintenanceRequest m JOIN m.student s JOIN s.user u JOIN m.room rm ORDER BY m.id")
+    Stream<Object[]> streamExportRows();
+}
@@ -0,0 +1,30 @@
+package com.hostel.repository;
+
+import com.hostel.entity.RoomAssignmentHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Interval rows are [studentId, studentName, roomId, roomNumber, assignedAt, vacatedAt]; names and
+// room numbers are null once the student or room has been deleted.
+// "Open at :at" means assignedAt <= :at (or unknown) and vacatedAt > :at.
+@Repository
+public interface RoomAssignmentHistoryRepository extends JpaRepository<RoomAssignmentHistory, Long> {
+    @Query("SELECT h.studentId, u.name, h.roomId, r.roomNumber, h.assignedAt, h.vacatedAt FROM RoomAssignmentHistory h "
+            + "LEFT JOIN Student s ON s.id = h.studentId LEFT JOIN s.user u LEFT JOIN Room r ON r.id = h.roomId "
+            + "WHERE h.roomId = :roomId AND h.vacatedAt > :at AND (h.assignedAt IS NULL OR h.assignedAt <= :at) ORDER BY h.vacatedAt")
+    List<Object[]> findRoomIntervalsOpenAt(Long roomId, LocalDateTime at);
+
+    @Query("SELECT h.studentId, u.name, h.roomId, r.roomNumber, h.assignedAt, h.vacatedAt FROM RoomAssignmentHistory h "
+            + "LEFT JOIN Student s ON s.id = h.studentId LEFT JOIN s.user u LEFT JOIN Room r ON r.id = h.roomId "
+            + "WHERE h.studentId = :studentId ORDER BY h.vacatedAt")
+    List<Object[]> findStudentIntervals(Long studentId);
+
+    // Each row is [roomId, occupancy]
+    @Query("SELECT h.roomId, COUNT(h) FROM RoomAssignmentHistory h "
+            + "WHERE h.vacatedAt > :at AND (h.assignedAt IS NULL OR h.assignedAt <= :at) GROUP BY h.roomId")
+    List<Object[]> countOpenAt(LocalDateTime at);
+}
@@ -1,16 +1,60 @@
 package com.hostel.repository;
 
 import com.hostel.entity.RoomBookingRequest;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoomBookingRequestRepository extends JpaRepository<RoomBookingRequest, Long> {
     List<RoomBookingRequest> findByStudentId(Long studentId);
+
+    // The unpaged admin listing maps student, user and room of every row
+    @Query("SELECT r FROM RoomBookingRequest r JOIN FETCH r.student s LEFT JOIN FETCH s.user LEFT JOIN FETCH r.room")
+    List<RoomBookingRequest> findAll();
+
+    // Served by the (student_id, room_id, pending_flag) unique index
+    boolean existsByStudentIdAndRoomIdAndStatusIn(Long studentId, Long roomId, Collection<RoomBookingRequest.Status> statuses);
+    
+    // Booking queue rebuild, in arrival order (waitlists in the order they were drawn): each row is [requestId, roomId]
+    @Query("SELECT r.id, r.room.id FROM RoomBookingRequest r WHERE r.status = :status ORDER BY r.waitlistPosition, r.id")
+    List<Object[]> findQueueEntriesByStatus(@Param("status") RoomBookingRequest.Status status);
+    
+    // Rooms in which the student's requests with this status hold or wait for a bed
+    @Query("SELECT DISTINCT r.room.id FROM RoomBookingRequest r WHERE r.student.id = :studentId AND r.status = :status")
+    List<Long> findRoomIdsByStudentIdAndStatus(@Param("studentId") Long studentId, @Param("status") RoomBookingRequest.Status status);
+    
+    @Query("SELECT COALESCE(MAX(r.waitlistPosition), 0) FROM RoomBookingRequest r")
+    long findMaxWaitlistPosition();
+    
+    // Each row is [requestId, roomId]
+    @Query("SELECT r.id, r.room.id FROM RoomBookingRequest r WHERE r.id IN :ids")
+    List<Object[]> findRoomIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Locks the requests in id order until the surrounding transaction ends; each row is [requestId, studentId, roomId, status]
+    @Query(value = "SELECT id, student_id, room_id, status FROM room_booking_requests WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockDecisionRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Room swap graph, oldest request first: each row is [requestId, studentId, studentName, fromRoomId, fromRoomNumber,
+    // toRoomId, toRoomNumber] for requests in the given statuses by students who have a room
+    @Query("SELECT r.id, s.id, u.name, cur.id, cur.roomNumber, rm.id, rm.roomNumber FROM RoomBookingRequest r "
+            + "JOIN r.student s JOIN s.user u JOIN s.room cur JOIN r.room rm WHERE r.status IN :statuses AND cur.id <> rm.id ORDER BY r.id")
+    List<Object[]> findSwapEdges(@Param("statuses") Collection<RoomBookingRequest.Status> statuses);
+    
+    // Same rows for the given requests
+    @Query("SELECT r.id, s.id, u.name, cur.id, cur.roomNumber, rm.id, rm.roomNumber FROM RoomBookingRequest r "
+            + "JOIN r.student s JOIN s.user u JOIN s.room cur JOIN r.room rm WHERE r.id IN :ids ORDER BY r.id")
+    List<Object[]> findSwapEdgesByIdIn(@Param("ids") Collection<Long> ids);
     
     List<RoomBookingRequest> findByStatus(RoomBookingRequest.Status status);
     
@@ -22,4 +66,18 @@ public interface RoomBookingRequestRepository extends JpaRepository<RoomBookingR
     
     @Query("SELECT r FROM RoomBookingRequest r WHERE r.status = :status ORDER BY r.createdAt DESC")
     List<RoomBookingRequest> findByStatusOrderByCreatedAtDesc(@Param("status") RoomBookingRequest.Status status);
-}
\ No newline at end of file
+    
+    @Query("SELECT r FROM RoomBookingRequest r JOIN FETCH r.student s LEFT JOIN FETCH s.user JOIN FETCH r.room " +
+           "WHERE (:status IS NULL OR r.status = :status) AND (:roomId IS NULL OR r.room.id = :roomId) " +
+           "AND (:from IS NULL OR r.createdAt >= :from) AND (:to IS NULL OR r.createdAt < :to) " +
+           "AND (:afterId IS NULL OR r.id > :afterId) AND (:beforeId IS NULL OR r.id < :beforeId)")
+    Slice<RoomBookingRequest> findSlice(@Param("status") RoomBookingRequest.Status status, @Param("roomId") Long roomId,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("afterId") Long afterId, @Param("beforeId") Long beforeId, Pageable pageable);
+    
+    // Export rows: [id, studentId, studentName, studentEmail, roomId, roomNumber, status, createdAt, resolvedAt, adminRemarks]
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, s.id, u.name, u.email, rm.id, rm.roomNumber, r.status, r.createdAt, r.resolvedAt, r.adminRemarks "
+            + "FROM RoomBookingRequest r JOIN r.student s JOIN s.user u JOIN r.room rm ORDER BY r.id")
+    Stream<Object[]> streamExportRows();
+}
@@ -1,10 +1,64 @@
 package com.hostel.repository;
 
 import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
     Boolean existsByRoomNumber(String roomNumber);
-}
\ No newline at end of file
+    
+    // Set lookup for bulk import: each row is [roomId, roomNumber] for the numbers that exist
+    @Query("SELECT r.id, r.roomNumber FROM Room r WHERE r.roomNumber IN :roomNumbers")
+    List<Object[]> findIdsByRoomNumberIn(Collection<String> roomNumbers);
+    
+    @Query("SELECT r FROM Room r WHERE (:afterId IS NULL OR r.id > :afterId) AND (:beforeId IS NULL OR r.id < :beforeId)")
+    Slice<Room> findSlice(Long afterId, Long beforeId, Pageable pageable);
+    
+    // Locks the room row until the surrounding transaction ends
+    @Query(value = "SELECT capacity FROM rooms WHERE id = :roomId FOR UPDATE", nativeQuery = true)
+    Integer lockCapacityById(Long roomId);
+    
+    // Next chunk of room ids after afterId, locked until the surrounding transaction ends (checkout)
+    @Query(value = "SELECT id FROM rooms WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockNextIds(Long afterId, int limit);
+    
+    // Locks the given room rows in id order until the surrounding transaction ends (batch booking decisions);
+    // each row is [roomId, capacity]
+    @Query(value = "SELECT id, capacity FROM rooms WHERE id IN (:roomIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockCapacitiesByIdIn(Collection<Long> roomIds);
+    
+    // Locks every room row until the surrounding transaction ends (bulk allocation)
+    @Query(value = "SELECT id FROM rooms ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAll();
+    
+    // Each row is [roomId, roomNumber, capacity]
+    @Query("SELECT r.id, r.roomNumber, r.capacity FROM Room r WHERE r.id IN :roomIds")
+    List<Object[]> findSummariesByIdIn(Collection<Long> roomIds);
+    
+    // Beds taken per room for the booking queue: each row is [roomId, capacity, occupancy, held], held counting
+    // the booking requests in the given status (PENDING requests keep a bed until an admin decides)
+    @Query("SELECT r.id, r.capacity, (SELECT COUNT(s) FROM Student s WHERE s.room.id = r.id), "
+            + "(SELECT COUNT(b) FROM RoomBookingRequest b WHERE b.room.id = r.id AND b.status = :held) "
+            + "FROM Room r WHERE r.id IN :roomIds")
+    List<Object[]> findBedUsageByIdIn(Collection<Long> roomIds, RoomBookingRequest.Status held);
+    
+    // Each row is [roomId, roomNumber, capacity, occupancy], by room id
+    @Query("SELECT r.id, r.roomNumber, r.capacity, COUNT(s.id) FROM Room r LEFT JOIN r.students s GROUP BY r.id, r.roomNumber, r.capacity ORDER BY r.id")
+    List<Object[]> findRoomOccupancies();
+    
+    // Export rows: [roomId, roomNumber, capacity, occupancy]
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, r.roomNumber, r.capacity, COUNT(s.id) FROM Room r LEFT JOIN r.students s GROUP BY r.id, r.roomNumber, r.capacity ORDER BY r.id")
+    Stream<Object[]> streamExportRows();
+}
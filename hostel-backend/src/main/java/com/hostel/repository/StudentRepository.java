@@ -1,26 +1,90 @@
 package com.hostel.repository;
 
 import com.hostel.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.user.id = :userId")
     Student findByUserId(Long userId);
     
+    // The account's student row without loading it: each row is [studentId, roomId]
+    @Query("SELECT s.id, r.id FROM Student s LEFT JOIN s.room r WHERE s.user.id = :userId")
+    List<Object[]> findPlacementByUserId(Long userId);
+    
     @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.room.id = :roomId")
     Student findStudentByRoomId(Long roomId);
     
     @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.room.id = :roomId")
     List<Student> findStudentsByRoomId(Long roomId);
     
+    @Query("SELECT COUNT(s) FROM Student s WHERE s.room.id = :roomId")
+    long countByRoomId(Long roomId);
+    
+    @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.room IS NOT NULL")
+    List<Student> findAllAssignedStudents();
+    
+    @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.room.id IN :roomIds")
+    List<Student> findStudentsByRoomIdIn(Collection<Long> roomIds);
+    
+    // Each row is [studentId, userId]
+    @Query("SELECT s.id, s.user.id FROM Student s WHERE s.user.id IN :userIds")
+    List<Object[]> findIdsByUserIdIn(Collection<Long> userIds);
+    
+    // Current assignments of a room that had started by :at, as [studentId, studentName, roomId, roomNumber, assignedAt]
+    @Query("SELECT s.id, u.name, r.id, r.roomNumber, s.assignedAt FROM Student s JOIN s.user u JOIN s.room r "
+            + "WHERE r.id = :roomId AND (s.assignedAt IS NULL OR s.assignedAt <= :at)")
+    List<Object[]> findRoomAssignmentsSince(Long roomId, LocalDateTime at);
+    
+    // Current assignment of one student, same layout (empty without a room)
+    @Query("SELECT s.id, u.name, r.id, r.roomNumber, s.assignedAt FROM Student s JOIN s.user u JOIN s.room r WHERE s.id = :studentId")
+    List<Object[]> findCurrentAssignment(Long studentId);
+    
+    // Each row is [roomId, occupancy], counting current assignments that had started by :at
+    @Query("SELECT s.room.id, COUNT(s) FROM Student s WHERE s.room IS NOT NULL AND (s.assignedAt IS NULL OR s.assignedAt <= :at) GROUP BY s.room.id")
+    List<Object[]> countAssignedSince(LocalDateTime at);
+    
+    // Locks the students in id order until the surrounding transaction ends; each row is [studentId, roomId]
+    @Query(value = "SELECT id, room_id FROM students WHERE id IN (:studentIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockRoomIdsByIdIn(Collection<Long> studentIds);
+    
+    // Each row is [roomId, occupancy]
+    @Query("SELECT s.room.id, COUNT(s) FROM Student s WHERE s.room.id IN :roomIds GROUP BY s.room.id")
+    List<Object[]> countByRoomIdIn(Collection<Long> roomIds);
+    
+    // Whole roster in one pass: each row is [studentId, userId, name, email, role, roomId, roomNumber, capacity, occupancy],
+    // with the room columns null for students without a room. Occupancy comes from one grouped count joined per room.
+    @Query("SELECT s.id, u.id, u.name, u.email, u.role, r.id, r.roomNumber, r.capacity, occ.occupancy FROM Student s JOIN s.user u LEFT JOIN s.room r "
+            + "LEFT JOIN (SELECT o.room.id AS roomId, COUNT(o) AS occupancy FROM Student o WHERE o.room IS NOT NULL GROUP BY o.room.id) occ ON occ.roomId = r.id "
+            + "ORDER BY s.id")
+    List<Object[]> findRoster();
+    
+    @Query("SELECT s FROM Student s JOIN FETCH s.user LEFT JOIN FETCH s.room WHERE (:roomId IS NULL OR s.room.id = :roomId) AND (:afterId IS NULL OR s.id > :afterId) AND (:beforeId IS NULL OR s.id < :beforeId)")
+    Slice<Student> findSlice(Long roomId, Long afterId, Long beforeId, Pageable pageable);
+    
     @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.room IS NULL")
     List<Student> findStudentsWithoutRooms();
     
+    // Same students as findStudentsWithoutRooms, ids only, for bulk allocation
+    @Query("SELECT s.id FROM Student s WHERE s.room IS NULL ORDER BY s.id")
+    List<Long> findIdsWithoutRoom();
+    
     @Query("SELECT s FROM Student s JOIN FETCH s.user")
     List<Student> findAll();
-}
\ No newline at end of file
+    
+    // Export rows, streamed with a JDBC fetch size: [studentId, userId, name, email, roomId, roomNumber]
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT s.id, u.id, u.name, u.email, r.id, r.roomNumber FROM Student s JOIN s.user u LEFT JOIN s.room r ORDER BY s.id")
+    Stream<Object[]> streamExportRows();
+}
@@ -2,9 +2,12 @@ package com.hostel.repository;
 
 import com.hostel.entity.Role;
 import com.hostel.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
     
+    // Set lookup for bulk registration: each row is [userId, email] for the emails that exist
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmailIn(Collection<String> emails);
+    
     @Query("SELECT u FROM User u WHERE u.role = :role")
     List<User> findByRole(Role role);
+    
+    // The inverse student side cannot be lazy, so listings fetch it in the same query instead of one select per user
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.student")
+    List<User> findAll();
+    
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.student WHERE (:role IS NULL OR u.role = :role) AND (:afterId IS NULL OR u.id > :afterId) AND (:beforeId IS NULL OR u.id < :beforeId)")
+    Slice<User> findSlice(Role role, Long afterId, Long beforeId, Pageable pageable);
 }
\ No newline at end of file
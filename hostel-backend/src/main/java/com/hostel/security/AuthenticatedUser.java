@@ -0,0 +1,37 @@
+package com.hostel.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+// Principal built from verified token claims, so authenticated requests don't need the User entity
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Long studentId;
+
+    public AuthenticatedUser(Long userId, String email, String role, Long studentId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.studentId = studentId;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public Long getStudentId() { return studentId; }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hostel.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Small bounded LRU cache with a fixed time-to-live per entry. An access-ordered LinkedHashMap
+// under one lock: every hit moves the entry to the back, and when the cache is full the least
+// recently used entry is dropped, so the working set of active users stays cached under churn.
+// The critical sections are a hash lookup and a few pointer swaps, short enough to share a lock.
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final Object lock = new Object();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public ExpiringCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (lock) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        if (maxSize <= 0 || ttlNanos <= 0) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, System.nanoTime());
+        synchronized (lock) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (lock) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.hostel.security;
 
+import com.hostel.config.SqlStatementCounter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +26,16 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    // When true the principal comes from token claims instead of a user lookup per request
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -33,33 +45,34 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String jwt = null;
-        String email = null;
-
-        // ✅ Extract JWT from header
+        // ✅ Extract JWT from header and verify it once for the whole request
         try {
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                jwt = authHeader.substring(7);
-                email = jwtUtil.extractUsername(jwt);
-            }
+            if (authHeader != null && authHeader.startsWith("Bearer ")
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                VerifiedToken token = jwtUtil.verify(authHeader.substring(7));
+                request.setAttribute(JwtUtil.VERIFIED_TOKEN_ATTRIBUTE, token);
 
-            // ✅ Validate token & set authentication
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                if (stateless && token.getUserId() != null) {
+                    // ✅ Token carries the ids, build the principal from claims
+                    authenticateFromToken(token, request);
+                } else {
+                    // Tokens issued before the id claims existed fall back to the user lookup
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(token.getEmail());
 
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
+                    if (userDetails.getUsername().equals(token.getEmail())) {
+                        UsernamePasswordAuthenticationToken authToken =
+                                new UsernamePasswordAuthenticationToken(
+                                        userDetails,
+                                        null,
+                                        userDetails.getAuthorities()
+                                );
 
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
+                        authToken.setDetails(
+                                new WebAuthenticationDetailsSource().buildDetails(request)
+                        );
 
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -68,6 +81,18 @@ public class JwtFilter extends OncePerRequestFilter {
             logger.warn("JWT validation failed: " + e.getMessage());
         }
 
+        // Statement budgets cover the endpoint, not the principal lookup above
+        sqlStatementCounter.authenticated();
         filterChain.doFilter(request, response);
     }
+
+    private void authenticateFromToken(VerifiedToken token, HttpServletRequest request) {
+        AuthenticatedUser principal = principalResolver.resolve(token);
+        if (principal != null) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.hostel.security;
+
+import com.hostel.entity.User;
+import com.hostel.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Turns a verified token into an AuthenticatedUser. The account is looked up at most once
+// per TTL window per email and the result (including "no such user") is cached, so deleted or
+// re-roled accounts stop authenticating once their entry is invalidated or expires.
+@Component
+public class JwtPrincipalResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private ExpiringCache<String, Account> accounts;
+
+    @PostConstruct
+    void init() {
+        accounts = new ExpiringCache<>(ttlSeconds * 1000, maxSize);
+    }
+
+    // Returns null when the token was issued for an account that no longer matches the database
+    public AuthenticatedUser resolve(VerifiedToken token) {
+        String email = token.getEmail();
+        Long userId = token.getUserId();
+        String role = token.getRole();
+        if (email == null || userId == null || role == null) {
+            return null;
+        }
+
+        Account account = accounts.get(email);
+        if (account == null) {
+            User user = userRepository.findByEmail(email).orElse(null);
+            account = user != null ? new Account(user.getId(), user.getRole().name()) : Account.MISSING;
+            accounts.put(email, account);
+        }
+
+        if (!userId.equals(account.userId) || !role.equals(account.role)) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, email, role, token.getStudentId());
+    }
+
+    public void invalidate(String email) {
+        accounts.invalidate(email);
+    }
+
+    private static final class Account {
+        private static final Account MISSING = new Account(null, null);
+
+        private final Long userId;
+        private final String role;
+
+        private Account(Long userId, String role) {
+            this.userId = userId;
+            this.role = role;
+        }
+    }
+}
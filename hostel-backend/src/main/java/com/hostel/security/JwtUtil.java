@@ -1,14 +1,20 @@
 package com.hostel.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +23,13 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String STUDENT_ID_CLAIM = "sid";
+
+    // Request attribute holding the VerifiedToken for the current request
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtUtil.class.getName() + ".VERIFIED_TOKEN";
+
     // 🔐 MUST be >= 64 characters for HS512
     @Value("${jwt.secret}")
     private String secret;
@@ -24,22 +37,53 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400}") // seconds (24 hours)
     private Long expiration;
 
+    // Recently verified tokens, so a hit skips the HMAC and JSON parse. Keyed by the SHA-256 digest of the
+    // whole compact token (see cacheKey), so only byte-identical tokens match.
+    @Value("${jwt.verified-cache.max-size:1024}")
+    private int verifiedCacheMaxSize;
+
+    @Value("${jwt.verified-cache.ttl-seconds:300}")
+    private long verifiedCacheTtlSeconds;
+
+    // Built once: the key never changes and the parser is immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private ExpiringCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = new ExpiringCache<>(verifiedCacheTtlSeconds * 1000, verifiedCacheMaxSize);
+    }
+
     // ========================
     // TOKEN GENERATION
     // ========================
 
     // ✅ Used during LOGIN
     public String generateToken(String email, String role) {
+        return generateToken(email, role, null, null);
+    }
+
+    // ✅ Carries the ids the stateless filter needs to build the principal without a lookup
+    public String generateToken(String email, String role, Long userId, Long studentId) {
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
+        if (studentId != null) {
+            claims.put(STUDENT_ID_CLAIM, studentId);
+        }
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -47,9 +91,37 @@ public class JwtUtil {
     // TOKEN VALIDATION
     // ========================
 
+    // ✅ Verifies signature and expiry exactly once, throws if either check fails
+    public VerifiedToken verify(String token) {
+        String key = cacheKey(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                verifiedTokens.invalidate(key);
+                throw new ExpiredJwtException(null, null, "JWT expired at " + new Date(cached.getExpiresAtMillis()));
+            }
+            return cached;
+        }
+
+        VerifiedToken verified = VerifiedToken.from(extractAllClaims(token));
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    // SHA-256 of the token: a fixed 44 characters however long the token is, and the cache never holds
+    // the bearer credential itself
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     public boolean validateToken(String token, String email) {
-        final String username = extractUsername(token);
-        return username.equals(email) && !isTokenExpired(token);
+        VerifiedToken verified = verify(token);
+        return verified.getEmail().equals(email) && !verified.isExpired();
     }
 
     // ========================
@@ -57,38 +129,23 @@ public class JwtUtil {
     // ========================
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getEmail();
     }
 
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return verify(token).getRole();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).getExpiresAtMillis());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
         return resolver.apply(extractAllClaims(token));
     }
 
-    // ========================
-    // INTERNAL HELPERS
-    // ========================
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Full signature check and parse, bypassing the verified-token cache
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
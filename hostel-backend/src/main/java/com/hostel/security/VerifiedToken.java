@@ -0,0 +1,44 @@
+package com.hostel.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+// Immutable result of verifying a token once. The filter stores it on the request so later
+// code reads claims from here instead of parsing and re-checking the signature again.
+public final class VerifiedToken {
+    private final String email;
+    private final String role;
+    private final Long userId;
+    private final Long studentId;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String email, String role, Long userId, Long studentId, long expiresAtMillis) {
+        this.email = email;
+        this.role = role;
+        this.userId = userId;
+        this.studentId = studentId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    static VerifiedToken from(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(JwtUtil.ROLE_CLAIM, String.class),
+                claims.get(JwtUtil.USER_ID_CLAIM, Long.class),
+                claims.get(JwtUtil.STUDENT_ID_CLAIM, Long.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public Long getUserId() { return userId; }
+    public Long getStudentId() { return studentId; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hostel.service;
+
+// Best-fit packing of unassigned students into rooms with free beds, computed purely in memory.
+// Every student takes one bed, so best fit comes down to an ordering of the rooms: partially occupied
+// rooms first, tightest (fewest free beds) first, then empty rooms smallest first; each room is filled
+// before moving on to the next. Students are placed in the order given. Rooms are ordered with a
+// counting sort on free beds, so a plan is linear in rooms plus students.
+public final class AllocationPlanner {
+
+    private AllocationPlanner() {}
+
+    public static class Plan {
+        private final long[] studentIds;
+        // Room index (into the planner's room arrays) for each student, -1 when no bed was left
+        private final int[] roomIndex;
+        private final int assigned;
+        private final int roomsUsed;
+        private final long freeBeds;
+
+        Plan(long[] studentIds, int[] roomIndex, int assigned, int roomsUsed, long freeBeds) {
+            this.studentIds = studentIds;
+            this.roomIndex = roomIndex;
+            this.assigned = assigned;
+            this.roomsUsed = roomsUsed;
+            this.freeBeds = freeBeds;
+        }
+
+        public long[] getStudentIds() { return studentIds; }
+        public int[] getRoomIndex() { return roomIndex; }
+        public int getAssigned() { return assigned; }
+        public int getUnassigned() { return studentIds.length - assigned; }
+        public int getRoomsUsed() { return roomsUsed; }
+        public long getFreeBeds() { return freeBeds; }
+    }
+
+    public static Plan plan(long[] studentIds, int[] capacities, int[] occupancies) {
+        int rooms = capacities.length;
+        int maxFree = 0;
+        long freeBeds = 0;
+        for (int i = 0; i < rooms; i++) {
+            int free = capacities[i] - occupancies[i];
+            if (free > 0) {
+                maxFree = Math.max(maxFree, free);
+                freeBeds += free;
+            }
+        }
+
+        // Bucket key: partially occupied rooms by free beds, then empty rooms by free beds
+        int buckets = 2 * (maxFree + 1);
+        int[] bucketStart = new int[buckets + 1];
+        for (int i = 0; i < rooms; i++) {
+            int key = key(capacities[i], occupancies[i], maxFree);
+            if (key >= 0) {
+                bucketStart[key + 1]++;
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // Stable within a bucket, so equal rooms keep their input (room id) order
+        int[] order = new int[bucketStart[buckets]];
+        int[] next = bucketStart.clone();
+        for (int i = 0; i < rooms; i++) {
+            int key = key(capacities[i], occupancies[i], maxFree);
+            if (key >= 0) {
+                order[next[key]++] = i;
+            }
+        }
+
+        int[] roomIndex = new int[studentIds.length];
+        int student = 0;
+        int roomsUsed = 0;
+        for (int o = 0; o < order.length && student < studentIds.length; o++) {
+            int room = order[o];
+            int free = capacities[room] - occupancies[room];
+            int take = Math.min(free, studentIds.length - student);
+            for (int t = 0; t < take; t++) {
+                roomIndex[student++] = room;
+            }
+            roomsUsed++;
+        }
+        int assigned = student;
+        for (; student < studentIds.length; student++) {
+            roomIndex[student] = -1;
+        }
+        return new Plan(studentIds, roomIndex, assigned, roomsUsed, freeBeds);
+    }
+
+    // -1 for a full room
+    private static int key(int capacity, int occupancy, int maxFree) {
+        int free = capacity - occupancy;
+        if (free <= 0) {
+            return -1;
+        }
+        return occupancy > 0 ? free : maxFree + 1 + free;
+    }
+}
@@ -0,0 +1,116 @@
+package com.hostel.service;
+
+import com.hostel.dto.AssignmentIntervalDto;
+import com.hostel.dto.OccupancySnapshotDto;
+import com.hostel.entity.RoomAssignmentHistory;
+import com.hostel.entity.Student;
+import com.hostel.repository.RoomAssignmentHistoryRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Temporal view of room assignments. Current assignments live on the student row (room_id plus
+// assigned_at); every path that ends one writes the closed interval to room_assignment_history.
+// An as-of question is answered from both: history intervals open at that time, plus current
+// assignments that had already started.
+@Service
+public class AssignmentHistoryService {
+
+    private static final String RECORD_CURRENT =
+            "INSERT INTO room_assignment_history (student_id, room_id, assigned_at, vacated_at) "
+                    + "SELECT id, room_id, assigned_at, ? FROM students WHERE id = ? AND room_id IS NOT NULL";
+
+    @Autowired
+    private RoomAssignmentHistoryRepository historyRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Closes the student's current assignment; call before the student's room is changed or cleared
+    public void recordEnded(Student student, LocalDateTime vacatedAt) {
+        if (student.getRoom() == null) {
+            return;
+        }
+        historyRepository.save(new RoomAssignmentHistory(null, student.getId(), student.getRoom().getId(),
+                student.getAssignedAt(), vacatedAt, null));
+    }
+
+    // Same, from the student row as it is in the database; for callers holding the row lock whose entity may be stale
+    public void recordEnded(Long studentId, LocalDateTime vacatedAt) {
+        jdbcTemplate.update(RECORD_CURRENT, Timestamp.valueOf(vacatedAt), studentId);
+    }
+
+    public List<AssignmentIntervalDto> getRoomOccupantsAt(Long roomId, LocalDateTime at) {
+        List<AssignmentIntervalDto> occupants = new ArrayList<>();
+        for (Object[] row : historyRepository.findRoomIntervalsOpenAt(roomId, at)) {
+            occupants.add(toInterval(row));
+        }
+        for (Object[] row : studentRepository.findRoomAssignmentsSince(roomId, at)) {
+            occupants.add(toInterval(row));
+        }
+        return occupants;
+    }
+
+    // Every assignment the student has had, oldest first; the current one (if any) last
+    public List<AssignmentIntervalDto> getStudentHistory(Long studentId) {
+        List<AssignmentIntervalDto> intervals = new ArrayList<>();
+        for (Object[] row : historyRepository.findStudentIntervals(studentId)) {
+            intervals.add(toInterval(row));
+        }
+        for (Object[] row : studentRepository.findCurrentAssignment(studentId)) {
+            intervals.add(toInterval(row));
+        }
+        return intervals;
+    }
+
+    public OccupancySnapshotDto getSnapshot(LocalDateTime at) {
+        Map<Long, Long> occupancyByRoom = new TreeMap<>();
+        for (Object[] row : historyRepository.countOpenAt(at)) {
+            occupancyByRoom.merge((Long) row[0], (Long) row[1], Long::sum);
+        }
+        for (Object[] row : studentRepository.countAssignedSince(at)) {
+            occupancyByRoom.merge((Long) row[0], (Long) row[1], Long::sum);
+        }
+
+        Map<Long, Object[]> roomsById = new HashMap<>();
+        if (!occupancyByRoom.isEmpty()) {
+            for (Object[] row : roomRepository.findSummariesByIdIn(occupancyByRoom.keySet())) {
+                roomsById.put((Long) row[0], row);
+            }
+        }
+
+        List<OccupancySnapshotDto.RoomOccupancy> rooms = new ArrayList<>(occupancyByRoom.size());
+        long occupants = 0;
+        for (Map.Entry<Long, Long> entry : occupancyByRoom.entrySet()) {
+            Object[] room = roomsById.get(entry.getKey());
+            rooms.add(new OccupancySnapshotDto.RoomOccupancy(entry.getKey(),
+                    room != null ? (String) room[1] : null,
+                    room != null ? (Integer) room[2] : null,
+                    entry.getValue()));
+            occupants += entry.getValue();
+        }
+        return new OccupancySnapshotDto(at, occupants, rooms);
+    }
+
+    // History rows carry vacatedAt as a sixth column, current assignments stop at assignedAt
+    private static AssignmentIntervalDto toInterval(Object[] row) {
+        return new AssignmentIntervalDto((Long) row[0], (String) row[1], (Long) row[2], (String) row[3],
+                (LocalDateTime) row[4], row.length > 5 ? (LocalDateTime) row[5] : null);
+    }
+}
@@ -6,12 +6,13 @@ import com.hostel.dto.UserDto;
 import com.hostel.entity.Role;
 import com.hostel.entity.User;
 import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtPrincipalResolver;
 import com.hostel.security.JwtUtil;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,15 +21,19 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final StudentService studentService;
+    private final DataVersions dataVersions;
+    private final JwtPrincipalResolver principalResolver;
 
-    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository, JwtUtil jwtUtil, BCryptPasswordEncoder passwordEncoder, StudentService studentService) {
+    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder, StudentService studentService, DataVersions dataVersions, JwtPrincipalResolver principalResolver) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
         this.studentService = studentService;
+        this.dataVersions = dataVersions;
+        this.principalResolver = principalResolver;
     }
 
     public AuthResponse authenticateUser(AuthRequest authRequest) {
@@ -41,21 +46,22 @@ public class AuthService {
                     )
             );
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            
+            // No SecurityContext here: logins run on the hashing pool and every later request
+            // authenticates from its token, so a context set on a pool thread would only leak
             User user = (User) authentication.getPrincipal();
             System.out.println("User authenticated: " + user.getEmail() + " with role: " + user.getRole());
             
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-            
             Long studentId = null;
             if (Role.STUDENT.equals(user.getRole())) {
-                com.hostel.entity.Student student = studentService.getStudentByUserId(user.getId());
+                // Created now if the account has no student row yet, so the token carries the student id
+                com.hostel.entity.Student student = studentService.getOrCreateStudentByUserId(user.getId());
                 if (student != null) {
                     studentId = student.getId();
                 }
             }
             
+            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId(), studentId);
+            
             return new AuthResponse(token, "Login successful", user.getRole().name(), user.getId(), studentId);
         } catch (org.springframework.security.authentication.BadCredentialsException e) {
             System.err.println("Invalid credentials for: " + authRequest.getEmail());
@@ -69,7 +75,6 @@ public class AuthService {
 
     public AuthResponse register(UserDto userDto) {
         User savedUser = registerUser(userDto);
-        String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name());
         
         Long studentId = null;
         if (Role.STUDENT.equals(savedUser.getRole())) {
@@ -79,6 +84,8 @@ public class AuthService {
             }
         }
         
+        String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getId(), studentId);
+        
         return new AuthResponse(token, "User registered successfully", savedUser.getRole().name(), savedUser.getId(), studentId);
     }
 
@@ -95,6 +102,9 @@ public class AuthService {
                 .build();
         
         User savedUser = userRepository.save(user);
+        dataVersions.changed(DataVersions.Aggregate.USERS);
+        // The email may be cached as having no account (e.g. one deleted and now registered again)
+        principalResolver.invalidate(savedUser.getEmail());
         
         // If the user is a student, create a corresponding student record
         if (Role.STUDENT.equals(savedUser.getRole())) {
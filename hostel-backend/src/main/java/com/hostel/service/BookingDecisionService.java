@@ -0,0 +1,361 @@
+package com.hostel.service;
+
+import com.hostel.dto.BookingDecisionDto;
+import com.hostel.dto.BookingDecisionReport;
+import com.hostel.dto.BookingDecisionResult;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Approves and rejects many booking requests at once. Requests are grouped by room and decided a chunk
+// of rooms per transaction: the chunk's room rows are locked in id order (then its requests, then the
+// students being moved, the same order a single approval takes), capacity is checked once per room, and
+// everything is written with set-based statements and JDBC batches. Only PENDING requests can be approved,
+// in request id order, and a student is moved at most once per call. A request's own held bed is its place;
+// once a room is full the approvals that did not fit and the room's other pending requests are rejected.
+@Service
+public class BookingDecisionService {
+
+    // Shared with RoomSwapService
+    static final String RECORD_HISTORY =
+            "INSERT INTO room_assignment_history (student_id, room_id, assigned_at, vacated_at) "
+                    + "SELECT id, room_id, assigned_at, :vacatedAt FROM students WHERE id IN (:studentIds) AND room_id IS NOT NULL";
+
+    static final String ASSIGN = "UPDATE students SET room_id = ?, assigned_at = ? WHERE id = ?";
+
+    static final String RESOLVE = "UPDATE room_booking_requests SET status = ?, admin_remarks = ?, resolved_at = ? WHERE id = ?";
+
+    private static final String REJECT_LEFTOVERS = "UPDATE room_booking_requests SET status = 'REJECTED', admin_remarks = :remarks, "
+            + "resolved_at = :resolvedAt WHERE room_id IN (:roomIds) AND status = 'PENDING'";
+
+    private static final String ROOM_FULL_REMARKS = "Room is at full capacity";
+    private static final String APPROVAL_ROOM_FULL_REMARKS = "Rejected: room full, no bed was left when this request was approved";
+    private static final String ALREADY_MOVED_REMARKS = "Rejected: student was placed by another request in this batch";
+    private static final Set<String> OPEN_STATUSES = Set.of(RoomBookingRequest.Status.QUEUED.name(),
+            RoomBookingRequest.Status.PENDING.name(), RoomBookingRequest.Status.WAITLISTED.name());
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${bookings.decisions.chunk-rooms:100}")
+    private int chunkRooms;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingDecisionService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BookingDecisionReport decide(List<BookingDecisionDto> decisions) {
+        // One result per request, in the order they were sent
+        Map<Long, BookingDecisionResult> results = new LinkedHashMap<>();
+        Map<Long, BookingDecisionDto> decisionsById = new HashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision == null || decision.getId() == null) {
+                throw new RuntimeException("Every decision needs a request id");
+            }
+            if (results.containsKey(decision.getId())) {
+                throw new RuntimeException("Request " + decision.getId() + " is listed more than once");
+            }
+            RoomBookingRequest.Status status = decision.getStatus();
+            if (status != RoomBookingRequest.Status.APPROVED && status != RoomBookingRequest.Status.REJECTED
+                    && status != RoomBookingRequest.Status.CANCELLED) {
+                results.put(decision.getId(), new BookingDecisionResult(decision.getId(), null,
+                        BookingDecisionResult.Outcome.SKIPPED, "Decision must be APPROVED, REJECTED or CANCELLED"));
+                continue;
+            }
+            results.put(decision.getId(), null);
+            decisionsById.put(decision.getId(), decision);
+        }
+
+        // Rooms in id order, so concurrent batches lock them in the same order
+        TreeMap<Long, List<Long>> requestsByRoom = new TreeMap<>();
+        if (!decisionsById.isEmpty()) {
+            for (Object[] row : roomBookingRequestRepository.findRoomIdsByIdIn(decisionsById.keySet())) {
+                requestsByRoom.computeIfAbsent((Long) row[1], k -> new ArrayList<>()).add((Long) row[0]);
+            }
+        }
+
+        int autoRejected = 0;
+        // Students moved by chunks that committed; later approvals for them are rejected
+        Set<Long> movedStudentIds = new HashSet<>();
+        List<Long> roomIds = new ArrayList<>(requestsByRoom.keySet());
+        for (int from = 0; from < roomIds.size(); from += chunkRooms) {
+            List<Long> chunkRoomIds = roomIds.subList(from, Math.min(from + chunkRooms, roomIds.size()));
+            List<Long> requestIds = new ArrayList<>();
+            for (Long roomId : chunkRoomIds) {
+                requestIds.addAll(requestsByRoom.get(roomId));
+            }
+
+            ChunkOutcome outcome = applyChunk(chunkRoomIds, requestIds, decisionsById, movedStudentIds);
+            if (outcome == null) {
+                for (Long requestId : requestIds) {
+                    results.put(requestId, new BookingDecisionResult(requestId, null,
+                            BookingDecisionResult.Outcome.SKIPPED, "Rooms were busy, nothing was changed; please try again"));
+                }
+                continue;
+            }
+            results.putAll(outcome.results);
+            autoRejected += outcome.autoRejected;
+            movedStudentIds.addAll(outcome.movedStudentIds);
+            afterCommit(outcome);
+        }
+
+        BookingDecisionReport report = new BookingDecisionReport();
+        List<BookingDecisionResult> items = new ArrayList<>(results.size());
+        for (Map.Entry<Long, BookingDecisionResult> entry : results.entrySet()) {
+            BookingDecisionResult result = entry.getValue() != null ? entry.getValue()
+                    : new BookingDecisionResult(entry.getKey(), null, BookingDecisionResult.Outcome.NOT_FOUND, "Booking request not found");
+            items.add(result);
+            switch (result.getOutcome()) {
+                case APPROVED -> report.setApproved(report.getApproved() + 1);
+                case REJECTED -> report.setRejected(report.getRejected() + 1);
+                case CANCELLED -> report.setCancelled(report.getCancelled() + 1);
+                case ROOM_FULL -> report.setRoomFull(report.getRoomFull() + 1);
+                case NOT_FOUND -> report.setNotFound(report.getNotFound() + 1);
+                case SKIPPED -> report.setSkipped(report.getSkipped() + 1);
+            }
+        }
+        report.setAutoRejected(autoRejected);
+        report.setItems(items);
+        return report;
+    }
+
+    // Null when the chunk kept losing lock waits; it was rolled back every time
+    private ChunkOutcome applyChunk(List<Long> roomIds, List<Long> requestIds, Map<Long, BookingDecisionDto> decisions,
+                                    Set<Long> movedEarlier) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> decideChunk(roomIds, requestIds, decisions, movedEarlier));
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    System.err.println("Booking decisions for rooms " + roomIds.get(0) + ".." + roomIds.get(roomIds.size() - 1)
+                            + " gave up: " + e.getMessage());
+                    return null;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private ChunkOutcome decideChunk(List<Long> roomIds, List<Long> requestIds, Map<Long, BookingDecisionDto> decisions,
+                                     Set<Long> movedEarlier) {
+        Map<Long, Integer> capacities = new HashMap<>();
+        for (Object[] row : roomRepository.lockCapacitiesByIdIn(roomIds)) {
+            capacities.put(toLong(row[0]), ((Number) row[1]).intValue());
+        }
+        List<Object[]> requests = roomBookingRequestRepository.lockDecisionRowsByIdIn(requestIds);
+
+        Set<Long> approvedStudentIds = new HashSet<>();
+        for (Object[] row : requests) {
+            if (decisions.get(toLong(row[0])).getStatus() == RoomBookingRequest.Status.APPROVED) {
+                approvedStudentIds.add(toLong(row[1]));
+            }
+        }
+        Map<Long, Long> currentRooms = new HashMap<>();
+        if (!approvedStudentIds.isEmpty()) {
+            for (Object[] row : studentRepository.lockRoomIdsByIdIn(approvedStudentIds)) {
+                currentRooms.put(toLong(row[0]), toLong(row[1]));
+            }
+        }
+        // [roomId, capacity, occupancy, held]: beds taken by students and held by PENDING requests
+        Map<Long, Integer> occupancy = new HashMap<>();
+        Map<Long, Integer> held = new HashMap<>();
+        for (Object[] row : roomRepository.findBedUsageByIdIn(roomIds, RoomBookingRequest.Status.PENDING)) {
+            occupancy.put((Long) row[0], ((Long) row[2]).intValue());
+            held.put((Long) row[0], ((Long) row[3]).intValue());
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        ChunkOutcome outcome = new ChunkOutcome();
+        List<Object[]> resolutions = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        Set<Long> movedStudentIds = outcome.movedStudentIds;
+
+        // Locked in request id order, so approvals are considered oldest first
+        for (Object[] row : requests) {
+            Long requestId = toLong(row[0]);
+            Long studentId = toLong(row[1]);
+            Long roomId = toLong(row[2]);
+            String status = String.valueOf(row[3]);
+            BookingDecisionDto decision = decisions.get(requestId);
+
+            if (!OPEN_STATUSES.contains(status)) {
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.SKIPPED, "Request is already " + status);
+                continue;
+            }
+            if (!capacities.containsKey(roomId)) {
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.NOT_FOUND, "Room no longer exists");
+                continue;
+            }
+
+            boolean pending = RoomBookingRequest.Status.PENDING.name().equals(status);
+
+            if (decision.getStatus() != RoomBookingRequest.Status.APPROVED) {
+                boolean rejected = decision.getStatus() == RoomBookingRequest.Status.REJECTED;
+                resolutions.add(new Object[]{decision.getStatus().name(), decision.getAdminRemarks(), rejected ? now : null, requestId});
+                outcome.add(requestId, roomId, rejected ? BookingDecisionResult.Outcome.REJECTED : BookingDecisionResult.Outcome.CANCELLED, null);
+                if (pending) {
+                    held.merge(roomId, -1, Integer::sum);
+                    outcome.freedRoomIds.add(roomId);
+                }
+                continue;
+            }
+
+            // Queued and waitlisted requests get a bed from the booking queue first
+            if (!pending) {
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.SKIPPED,
+                        "Only pending requests can be approved; this one is " + status);
+                continue;
+            }
+            if (movedStudentIds.contains(studentId) || movedEarlier.contains(studentId)) {
+                resolutions.add(new Object[]{RoomBookingRequest.Status.REJECTED.name(), ALREADY_MOVED_REMARKS, now, requestId});
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.REJECTED, ALREADY_MOVED_REMARKS);
+                held.merge(roomId, -1, Integer::sum);
+                outcome.freedRoomIds.add(roomId);
+                continue;
+            }
+            Long currentRoomId = currentRooms.get(studentId);
+            if (roomId.equals(currentRoomId)) {
+                resolutions.add(new Object[]{RoomBookingRequest.Status.APPROVED.name(), decision.getAdminRemarks(), now, requestId});
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.APPROVED, "Student was already in this room");
+                held.merge(roomId, -1, Integer::sum);
+                outcome.freedRoomIds.add(roomId);
+                continue;
+            }
+            // This request's own held bed is its place; beds held by other pending requests are not free
+            held.merge(roomId, -1, Integer::sum);
+            if (occupancy.getOrDefault(roomId, 0) + held.getOrDefault(roomId, 0) >= capacities.get(roomId)) {
+                resolutions.add(new Object[]{RoomBookingRequest.Status.REJECTED.name(), APPROVAL_ROOM_FULL_REMARKS, now, requestId});
+                outcome.add(requestId, roomId, BookingDecisionResult.Outcome.ROOM_FULL, APPROVAL_ROOM_FULL_REMARKS);
+                outcome.freedRoomIds.add(roomId);
+                continue;
+            }
+
+            occupancy.merge(roomId, 1, Integer::sum);
+            if (currentRoomId != null) {
+                occupancy.computeIfPresent(currentRoomId, (k, count) -> count - 1);
+            }
+            movedStudentIds.add(studentId);
+            outcome.moves.add(new Long[]{currentRoomId, roomId});
+            assignments.add(new Object[]{roomId, now, studentId});
+            resolutions.add(new Object[]{RoomBookingRequest.Status.APPROVED.name(), decision.getAdminRemarks(), now, requestId});
+            outcome.add(requestId, roomId, BookingDecisionResult.Outcome.APPROVED, null);
+        }
+
+        if (!movedStudentIds.isEmpty()) {
+            // Moves close the previous assignment in the history first, like a single approval
+            namedParameterJdbcTemplate.update(RECORD_HISTORY, new MapSqlParameterSource()
+                    .addValue("studentIds", movedStudentIds)
+                    .addValue("vacatedAt", now));
+            jdbcTemplate.batchUpdate(ASSIGN, assignments);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+        }
+        if (!resolutions.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESOLVE, resolutions);
+        }
+
+        // Pending requests for a room that is now full can no longer be met
+        List<Long> fullRoomIds = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            if (capacities.containsKey(roomId) && occupancy.getOrDefault(roomId, 0) >= capacities.get(roomId)) {
+                fullRoomIds.add(roomId);
+            }
+        }
+        if (!fullRoomIds.isEmpty()) {
+            outcome.autoRejected = namedParameterJdbcTemplate.update(REJECT_LEFTOVERS, new MapSqlParameterSource()
+                    .addValue("remarks", ROOM_FULL_REMARKS)
+                    .addValue("resolvedAt", now)
+                    .addValue("roomIds", fullRoomIds));
+        }
+        if (!resolutions.isEmpty() || outcome.autoRejected > 0) {
+            dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        }
+        return outcome;
+    }
+
+    // The index and the booking queue only hear about a chunk once it has committed
+    private void afterCommit(ChunkOutcome outcome) {
+        for (Long[] move : outcome.moves) {
+            if (move[0] != null) {
+                roomOccupancyIndex.studentRemoved(move[0]);
+                bookingQueueService.bedsFreed(move[0]);
+            }
+            roomOccupancyIndex.studentAdded(move[1]);
+        }
+        for (Long roomId : outcome.freedRoomIds) {
+            bookingQueueService.bedsFreed(roomId);
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Booking decisions interrupted");
+        }
+    }
+
+    private static class ChunkOutcome {
+        private final Map<Long, BookingDecisionResult> results = new HashMap<>();
+        // [fromRoomId or null, toRoomId] per approved move
+        private final List<Long[]> moves = new ArrayList<>();
+        private final Set<Long> freedRoomIds = new HashSet<>();
+        private final Set<Long> movedStudentIds = new LinkedHashSet<>();
+        private int autoRejected;
+
+        void add(Long requestId, Long roomId, BookingDecisionResult.Outcome result, String message) {
+            results.put(requestId, new BookingDecisionResult(requestId, roomId, result, message));
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.hostel.service;
+
+import com.hostel.dto.BookingTicketDto;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Booking intake for the start-of-term rush. A request is stored as QUEUED (its id is the ticket) and
+// put on an in-memory queue; one allocator thread drains the queue in arrival order, or in seeded
+// lottery batches, and is the only place that decides who gets a bed. A request becomes PENDING while
+// the room has a bed that is neither occupied nor held by another PENDING request, and WAITLISTED
+// otherwise. Each room keeps its waitlist in order; when a bed frees up (a student leaves, a pending
+// request is rejected) the head of the waitlist is promoted. Queue and waitlists are rebuilt from the
+// QUEUED and WAITLISTED rows at startup; waitlisted rows carry their position, so a lottery's draw survives a restart.
+@Service
+public class BookingQueueService {
+
+    private static final String PLACE =
+            "UPDATE room_booking_requests SET status = ?, waitlist_position = ?, pending_since = ? WHERE id = ? AND status = 'QUEUED'";
+    private static final String PROMOTE =
+            "UPDATE room_booking_requests SET status = 'PENDING', pending_since = ? WHERE id = ? AND status = 'WAITLISTED'";
+
+    private static final long RETRY_DELAY_MS = 5000;
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    // arrival: first come, first served. lottery: requests collected over one window are drawn in random order
+    @Value("${bookings.queue.order:arrival}")
+    private String order;
+
+    @Value("${bookings.queue.lottery-seed:0}")
+    private long lotterySeed;
+
+    @Value("${bookings.queue.lottery-window-ms:5000}")
+    private long lotteryWindowMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService allocator;
+
+    private final Queue<Ticket> intake = new ConcurrentLinkedQueue<>();
+    // Arrival number of every ticket still in the intake queue; position = arrival - drained
+    private final Map<Long, Long> arrivals = new ConcurrentHashMap<>();
+    private final AtomicLong arrived = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    // Request ids per room, in promotion order; only the allocator thread changes them
+    private final Map<Long, Deque<Long>> waitlists = new ConcurrentHashMap<>();
+    // Last waitlist position handed out, loaded from the table on first use; allocator thread only
+    private long lastWaitlistPosition = -1;
+    private Random lottery;
+
+    public BookingQueueService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.allocator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-allocator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("bookings.queue.depth", this, service -> service.arrived.get() - service.drained.get())
+                .description("Booking requests accepted but not yet placed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lottery = new Random(lotterySeed);
+        allocator.execute(guarded(this::rebuild));
+        if (isLottery()) {
+            allocator.scheduleWithFixedDelay(guarded(this::drain), lotteryWindowMs, lotteryWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        allocator.shutdownNow();
+    }
+
+    // Called once the QUEUED row has committed
+    public BookingTicketDto enqueue(Long requestId, Long roomId) {
+        long arrival = add(new Ticket(requestId, roomId));
+        if (!isLottery() && drainScheduled.compareAndSet(false, true)) {
+            allocator.execute(guarded(this::drain));
+        }
+        return new BookingTicketDto(requestId, roomId, RoomBookingRequest.Status.QUEUED, arrival - drained.get());
+    }
+
+    // A bed in the room may have freed up; promotes from the waitlist on the allocator thread
+    public void bedsFreed(Long roomId) {
+        if (roomId != null) {
+            allocator.execute(guarded(() -> promote(roomId)));
+        }
+    }
+
+    // Requests closed outside an admin decision (e.g. expired): drops them from the room's waitlist and
+    // hands any bed they held to the next in line
+    public void requestsClosed(Long roomId, Collection<Long> requestIds) {
+        Set<Long> closed = new HashSet<>(requestIds);
+        allocator.execute(guarded(() -> {
+            Deque<Long> waitlist = waitlists.get(roomId);
+            if (waitlist != null && waitlist.removeIf(closed::contains) && waitlist.isEmpty()) {
+                waitlists.remove(roomId, waitlist);
+            }
+            promote(roomId);
+        }));
+    }
+
+    public BookingTicketDto getTicket(Long requestId) {
+        RoomBookingRequest request = roomBookingRequestRepository.findById(requestId).orElse(null);
+        if (request == null) {
+            return null;
+        }
+        Long roomId = request.getRoom().getId();
+        Long position = null;
+        if (request.getStatus() == RoomBookingRequest.Status.QUEUED) {
+            Long arrival = arrivals.get(requestId);
+            position = arrival != null ? Math.max(1, arrival - drained.get()) : null;
+        } else if (request.getStatus() == RoomBookingRequest.Status.WAITLISTED) {
+            position = waitlistPosition(roomId, requestId);
+        }
+        return new BookingTicketDto(requestId, roomId, request.getStatus(), position);
+    }
+
+    private boolean isLottery() {
+        return "lottery".equalsIgnoreCase(order);
+    }
+
+    private long add(Ticket ticket) {
+        long arrival = arrived.incrementAndGet();
+        arrivals.put(ticket.requestId, arrival);
+        intake.add(ticket);
+        return arrival;
+    }
+
+    // Runs first on the allocator thread. Requests that arrived before it are already queued and are skipped.
+    private void rebuild() {
+        List<Object[]> queued = roomBookingRequestRepository.findQueueEntriesByStatus(RoomBookingRequest.Status.QUEUED);
+        for (Object[] row : queued) {
+            Long requestId = (Long) row[0];
+            if (!arrivals.containsKey(requestId)) {
+                add(new Ticket(requestId, (Long) row[1]));
+            }
+        }
+        List<Object[]> waitlisted = roomBookingRequestRepository.findQueueEntriesByStatus(RoomBookingRequest.Status.WAITLISTED);
+        for (Object[] row : waitlisted) {
+            waitlists.computeIfAbsent((Long) row[1], k -> new ConcurrentLinkedDeque<>()).addLast((Long) row[0]);
+        }
+        System.out.println("Booking queue rebuilt: " + queued.size() + " queued, " + waitlisted.size() + " waitlisted");
+
+        // Beds may have freed up while the application was down
+        for (Long roomId : List.copyOf(waitlists.keySet())) {
+            promote(roomId);
+        }
+        if (!isLottery()) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<Ticket> batch = new ArrayList<>();
+        for (Ticket ticket = intake.poll(); ticket != null; ticket = intake.poll()) {
+            batch.add(ticket);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Request ids follow arrival (also across a rebuild); the lottery shuffles that order with its seeded generator
+        batch.sort(Comparator.comparing(ticket -> ticket.requestId));
+        if (isLottery()) {
+            Collections.shuffle(batch, lottery);
+        }
+
+        try {
+            place(batch);
+        } catch (RuntimeException e) {
+            // The rows are still QUEUED; put the batch back in front of later arrivals and try again
+            System.err.println("Booking queue could not place " + batch.size() + " requests: " + e.getMessage());
+            List<Ticket> retry = new ArrayList<>(batch);
+            for (Ticket ticket = intake.poll(); ticket != null; ticket = intake.poll()) {
+                retry.add(ticket);
+            }
+            intake.addAll(retry);
+            allocator.schedule(guarded(this::drain), RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        for (Ticket ticket : batch) {
+            arrivals.remove(ticket.requestId);
+        }
+        drained.addAndGet(batch.size());
+    }
+
+    private void place(List<Ticket> batch) {
+        Set<Long> roomIds = new LinkedHashSet<>();
+        for (Ticket ticket : batch) {
+            roomIds.add(ticket.roomId);
+        }
+
+        // Earlier waitlisted requests go before this batch
+        Map<Long, Integer> freeBeds = freeBeds(roomIds);
+        boolean promoted = false;
+        for (Long roomId : roomIds) {
+            int promotedInRoom = promoteWaitlisted(roomId, freeBeds.getOrDefault(roomId, 0));
+            if (promotedInRoom > 0) {
+                freeBeds.merge(roomId, -promotedInRoom, Integer::sum);
+                promoted = true;
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> placements = new ArrayList<>(batch.size());
+        Map<Long, List<Long>> newlyWaitlisted = new HashMap<>();
+        for (Ticket ticket : batch) {
+            Integer free = freeBeds.get(ticket.roomId);
+            if (free == null) {
+                // Room deleted since the request was accepted; its requests went with it
+                continue;
+            }
+            if (free > 0) {
+                freeBeds.put(ticket.roomId, free - 1);
+                placements.add(new Object[]{RoomBookingRequest.Status.PENDING.name(), null, now, ticket.requestId});
+            } else {
+                newlyWaitlisted.computeIfAbsent(ticket.roomId, k -> new ArrayList<>()).add(ticket.requestId);
+                placements.add(new Object[]{RoomBookingRequest.Status.WAITLISTED.name(), nextWaitlistPosition(), null, ticket.requestId});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(PLACE, placements));
+
+        // After commit, so a rolled back batch leaves the waitlists as they were
+        for (Map.Entry<Long, List<Long>> entry : newlyWaitlisted.entrySet()) {
+            waitlists.computeIfAbsent(entry.getKey(), k -> new ConcurrentLinkedDeque<>()).addAll(entry.getValue());
+        }
+        if (promoted || !placements.isEmpty()) {
+            dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        }
+    }
+
+    private long nextWaitlistPosition() {
+        if (lastWaitlistPosition < 0) {
+            lastWaitlistPosition = roomBookingRequestRepository.findMaxWaitlistPosition();
+        }
+        return ++lastWaitlistPosition;
+    }
+
+    private void promote(Long roomId) {
+        Deque<Long> waitlist = waitlists.get(roomId);
+        if (waitlist == null || waitlist.isEmpty()) {
+            return;
+        }
+        if (promoteWaitlisted(roomId, freeBeds(List.of(roomId)).getOrDefault(roomId, 0)) > 0) {
+            dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        }
+    }
+
+    // Moves up to freeBeds requests from the head of the room's waitlist to PENDING, one committed update each.
+    // Entries an admin resolved in the meantime no longer match the update and are dropped.
+    private int promoteWaitlisted(Long roomId, int freeBeds) {
+        Deque<Long> waitlist = waitlists.get(roomId);
+        int promoted = 0;
+        while (waitlist != null && promoted < freeBeds && !waitlist.isEmpty()) {
+            Long requestId = waitlist.peekFirst();
+            if (jdbcTemplate.update(PROMOTE, Timestamp.valueOf(LocalDateTime.now()), requestId) > 0) {
+                promoted++;
+            }
+            waitlist.pollFirst();
+        }
+        if (waitlist != null && waitlist.isEmpty()) {
+            waitlists.remove(roomId, waitlist);
+        }
+        return promoted;
+    }
+
+    // Beds neither occupied nor held by a PENDING request, for the rooms that still exist
+    private Map<Long, Integer> freeBeds(Collection<Long> roomIds) {
+        Map<Long, Integer> freeBeds = new HashMap<>();
+        for (Object[] row : roomRepository.findBedUsageByIdIn(roomIds, RoomBookingRequest.Status.PENDING)) {
+            int free = (Integer) row[1] - ((Long) row[2]).intValue() - ((Long) row[3]).intValue();
+            freeBeds.put((Long) row[0], Math.max(free, 0));
+        }
+        return freeBeds;
+    }
+
+    private Long waitlistPosition(Long roomId, Long requestId) {
+        Deque<Long> waitlist = waitlists.get(roomId);
+        if (waitlist == null) {
+            return null;
+        }
+        long position = 0;
+        for (Long id : waitlist) {
+            position++;
+            if (id.equals(requestId)) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    // A task that throws would end a periodic schedule (and be lost silently otherwise), so failures are logged
+    private static Runnable guarded(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Booking allocator task failed: " + e.getMessage());
+            }
+        };
+    }
+
+    private static class Ticket {
+        private final Long requestId;
+        private final Long roomId;
+
+        Ticket(Long requestId, Long roomId) {
+            this.requestId = requestId;
+            this.roomId = roomId;
+        }
+    }
+}
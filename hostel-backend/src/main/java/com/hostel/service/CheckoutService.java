@@ -0,0 +1,208 @@
+package com.hostel.service;
+
+import com.hostel.entity.CheckoutRun;
+import com.hostel.repository.CheckoutRunRepository;
+import com.hostel.repository.RoomRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// End-of-term checkout: empties every room, a chunk of rooms per short transaction. Each chunk locks
+// its room rows (so no allocation lands in them meanwhile), copies the assignments into
+// room_assignment_history and clears them with one set-based UPDATE. The run's progress commits
+// with the chunk, so an interrupted run resumes after the last finished room. Row locks last one chunk
+// and plain reads never wait on them.
+@Service
+public class CheckoutService {
+
+    private static final String RECORD_HISTORY =
+            "INSERT INTO room_assignment_history (student_id, room_id, assigned_at, vacated_at, checkout_run_id) "
+                    + "SELECT id, room_id, assigned_at, :vacatedAt, :runId FROM students WHERE room_id IN (:roomIds)";
+
+    // Rows: [room_id, students]
+    private static final String COUNT_OCCUPANTS =
+            "SELECT room_id, COUNT(*) FROM students WHERE room_id IN (:roomIds) GROUP BY room_id";
+
+    private static final String VACATE = "UPDATE students SET room_id = NULL, assigned_at = NULL WHERE room_id IN (:roomIds)";
+
+    @Autowired
+    private CheckoutRunRepository checkoutRunRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${checkout.chunk-rooms:200}")
+    private int chunkRooms;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService runner;
+
+    public CheckoutService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-checkout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A run still marked RUNNING at startup belonged to a previous process that stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedRuns() {
+        for (CheckoutRun run : checkoutRunRepository.findByStatus(CheckoutRun.Status.RUNNING)) {
+            run.setStatus(CheckoutRun.Status.INTERRUPTED);
+            run.setMessage("Stopped by an application restart; resume to continue");
+            checkoutRunRepository.save(run);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    public synchronized CheckoutRun startCheckout() {
+        ensureNoneRunning();
+        CheckoutRun run = new CheckoutRun();
+        run.setTotalRooms(roomRepository.count());
+        run = checkoutRunRepository.save(run);
+        submit(run.getId());
+        return run;
+    }
+
+    public synchronized CheckoutRun resumeCheckout(Long runId) {
+        CheckoutRun run = checkoutRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Checkout run not found"));
+        if (run.getStatus() == CheckoutRun.Status.COMPLETED) {
+            throw new RuntimeException("Checkout run " + runId + " has already completed");
+        }
+        ensureNoneRunning();
+        run.setStatus(CheckoutRun.Status.RUNNING);
+        run.setMessage(null);
+        run.setFinishedAt(null);
+        run = checkoutRunRepository.save(run);
+        submit(run.getId());
+        return run;
+    }
+
+    public CheckoutRun getRun(Long runId) {
+        return checkoutRunRepository.findById(runId).orElse(null);
+    }
+
+    public CheckoutRun getLatestRun() {
+        return checkoutRunRepository.findFirstByOrderByIdDesc();
+    }
+
+    // Ends every assignment in the given rooms with one history insert and one UPDATE; returns the
+    // number of students vacated per room, every given room included. Joins the caller's transaction,
+    // or runs in its own. The caller holds the room locks, so the counts match what the UPDATE clears.
+    public Map<Long, Integer> vacateRooms(Collection<Long> roomIds, Long checkoutRunId) {
+        Map<Long, Integer> vacated = new LinkedHashMap<>();
+        for (Long roomId : roomIds) {
+            vacated.put(roomId, 0);
+        }
+        if (roomIds.isEmpty()) {
+            return vacated;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("roomIds", roomIds)
+                .addValue("vacatedAt", LocalDateTime.now())
+                .addValue("runId", checkoutRunId);
+        transactionTemplate.executeWithoutResult(status -> {
+            namedParameterJdbcTemplate.query(COUNT_OCCUPANTS, params,
+                    rs -> { vacated.put(rs.getLong(1), rs.getInt(2)); });
+            namedParameterJdbcTemplate.update(RECORD_HISTORY, params);
+            namedParameterJdbcTemplate.update(VACATE, params);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+        });
+        return vacated;
+    }
+
+    private void ensureNoneRunning() {
+        List<CheckoutRun> running = checkoutRunRepository.findByStatus(CheckoutRun.Status.RUNNING);
+        if (!running.isEmpty()) {
+            throw new RuntimeException("Checkout run " + running.get(0).getId() + " is already running");
+        }
+    }
+
+    private void submit(Long runId) {
+        runner.submit(() -> run(runId));
+    }
+
+    private void run(Long runId) {
+        try {
+            Map<Long, Integer> chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> processChunk(runId));
+                // After commit, so the index never shows a room emptied by a chunk that rolled back. One
+                // removal per student vacated, so an allocation committed since then still counts. The
+                // emptied beds go to the rooms' waitlists.
+                for (Map.Entry<Long, Integer> room : chunk.entrySet()) {
+                    for (int i = 0; i < room.getValue(); i++) {
+                        roomOccupancyIndex.studentRemoved(room.getKey());
+                    }
+                    bookingQueueService.bedsFreed(room.getKey());
+                }
+            } while (!chunk.isEmpty());
+            finish(runId, CheckoutRun.Status.COMPLETED, null);
+        } catch (RuntimeException e) {
+            System.err.println("Checkout run " + runId + " failed: " + e.getMessage());
+            finish(runId, CheckoutRun.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private Map<Long, Integer> processChunk(Long runId) {
+        CheckoutRun run = checkoutRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Checkout run not found"));
+        List<Long> roomIds = roomRepository.lockNextIds(run.getLastRoomId() != null ? run.getLastRoomId() : 0L, chunkRooms);
+        if (roomIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> vacated = vacateRooms(roomIds, runId);
+        run.setLastRoomId(roomIds.get(roomIds.size() - 1));
+        run.setRoomsProcessed(run.getRoomsProcessed() + roomIds.size());
+        run.setStudentsVacated(run.getStudentsVacated() + vacated.values().stream().mapToInt(Integer::intValue).sum());
+        checkoutRunRepository.save(run);
+        return vacated;
+    }
+
+    private void finish(Long runId, CheckoutRun.Status status, String message) {
+        CheckoutRun run = checkoutRunRepository.findById(runId).orElse(null);
+        if (run != null) {
+            run.setStatus(status);
+            run.setMessage(message);
+            run.setFinishedAt(LocalDateTime.now());
+            checkoutRunRepository.save(run);
+            System.out.println("Checkout run " + runId + " " + status + ": " + run.getRoomsProcessed() + " rooms, "
+                    + run.getStudentsVacated() + " students vacated");
+        }
+    }
+}
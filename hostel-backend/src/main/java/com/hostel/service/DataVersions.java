@@ -0,0 +1,82 @@
+package com.hostel.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Version counter per aggregate, bumped by the service-layer write paths once their change has
+// committed. List endpoints derive a strong ETag from the counters they depend on and answer a
+// matching If-None-Match with 304 before running any query. Readers take the version before
+// querying, so a response is never tagged newer than its data. Counters live in memory (like
+// RoomOccupancyIndex); the startup epoch in every tag keeps a restart from reusing old tags.
+@Component
+public class DataVersions {
+
+    public enum Aggregate {
+        ROOMS, STUDENTS, BOOKING_REQUESTS, MAINTENANCE_REQUESTS, NOTICES, USERS
+    }
+
+    // Cached copies must be revalidated on every use, and only by the browser that fetched them
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(Aggregate.values().length);
+
+    // Called from inside a transaction, the bump waits for the commit
+    public void changed(Aggregate... aggregates) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(aggregates);
+                }
+            });
+        } else {
+            bump(aggregates);
+        }
+    }
+
+    public long version(Aggregate aggregate) {
+        return versions.get(aggregate.ordinal());
+    }
+
+    // Pass a scope (e.g. the user id) when the same URL returns different data per caller
+    public String etag(Object scope, Aggregate... aggregates) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        if (scope != null) {
+            etag.append('-').append(scope);
+        }
+        for (Aggregate aggregate : aggregates) {
+            etag.append('-').append(version(aggregate));
+        }
+        return etag.append('"').toString();
+    }
+
+    // True when the client's copy is current; the response is then already a 304 and the handler returns null
+    public boolean notModified(WebRequest request, Aggregate... aggregates) {
+        return notModified(request, null, aggregates);
+    }
+
+    public boolean notModified(WebRequest request, Object scope, Aggregate... aggregates) {
+        if (request instanceof ServletWebRequest servletRequest) {
+            HttpServletResponse response = servletRequest.getResponse();
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+        return request.checkNotModified(etag(scope, aggregates));
+    }
+
+    private void bump(Aggregate... aggregates) {
+        for (Aggregate aggregate : aggregates) {
+            versions.incrementAndGet(aggregate.ordinal());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hostel.repository.MaintenanceRequestRepository;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Streams whole tables as CSV or NDJSON straight from a scrolling projection query, so heap use does
+// not depend on the number of rows. Output is flushed every FLUSH_EVERY rows to keep data moving
+// to the client while the query is still being read.
+@Service
+public class ExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
+
+    public enum Dataset {
+        STUDENTS("students", "studentId", "userId", "name", "email", "roomId", "roomNumber"),
+        ROOMS("rooms", "roomId", "roomNumber", "capacity", "occupancy"),
+        BOOKING_REQUESTS("booking-requests", "id", "studentId", "studentName", "studentEmail", "roomId", "roomNumber",
+                "status", "createdAt", "resolvedAt", "adminRemarks"),
+        MAINTENANCE_REQUESTS("maintenance-requests", "id", "studentId", "studentName", "roomId", "roomNumber",
+                "description", "status", "createdAt", "resolvedAt", "remarks");
+
+        private final String path;
+        private final String[] columns;
+
+        Dataset(String path, String... columns) {
+            this.path = path;
+            this.columns = columns;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static Dataset from(String path) {
+            for (Dataset dataset : values()) {
+                if (dataset.path.equals(path)) {
+                    return dataset;
+                }
+            }
+            throw new RuntimeException("Unknown export: " + path);
+        }
+    }
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Dataset dataset, Format format, OutputStream out) {
+        Supplier<Stream<Object[]>> rows = switch (dataset) {
+            case STUDENTS -> studentRepository::streamExportRows;
+            case ROOMS -> roomRepository::streamExportRows;
+            case BOOKING_REQUESTS -> roomBookingRequestRepository::streamExportRows;
+            case MAINTENANCE_REQUESTS -> maintenanceRequestRepository::streamExportRows;
+        };
+        // The stream reads from an open cursor, so the connection stays in one transaction until the last row
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> stream = rows.get()) {
+                if (format == Format.CSV) {
+                    writeCsv(dataset.columns, stream.iterator(), out);
+                } else {
+                    writeNdjson(dataset.columns, stream.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(String[] columns, Iterator<Object[]> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        writer.flush();
+
+        int written = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(row[i]));
+            }
+            writer.write("\r\n");
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(String[] columns, Iterator<Object[]> rows, OutputStream out) throws IOException {
+        // Same date/enum handling as the API, minus the flush after every value
+        ObjectWriter valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // Rows go out as they are written; closing the HTTP stream is left to the caller
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // One object per line, without Jackson's default space between root values
+        generator.setRootValueSeparator(null);
+        int written = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                generator.writeFieldName(columns[i]);
+                valueWriter.writeValue(generator, row[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            // Keep spreadsheet apps from evaluating user-entered text as a formula
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
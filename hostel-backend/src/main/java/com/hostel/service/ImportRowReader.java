@@ -0,0 +1,222 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads bulk-import input one record at a time, from either CSV or a JSON array of objects.
+// CSV rows are numbered by input line and may start with a header naming the columns in any order
+// (matched ignoring case and underscores, so room_number = roomNumber); without a header the columns
+// are taken in the given order. JSON rows are numbered by position in the array.
+public abstract class ImportRowReader implements Closeable {
+
+    public enum Format {
+        CSV, JSON;
+
+        // Explicit ?format= first, then the file extension, then the content type
+        public static Format from(String format, String filename, String contentType) {
+            if (format != null && !format.isBlank()) {
+                for (Format value : values()) {
+                    if (value.name().equalsIgnoreCase(format)) {
+                        return value;
+                    }
+                }
+                throw new RuntimeException("Unsupported import format: " + format);
+            }
+            if (filename != null) {
+                String lower = filename.toLowerCase(Locale.ROOT);
+                if (lower.endsWith(".csv")) {
+                    return CSV;
+                }
+                if (lower.endsWith(".json")) {
+                    return JSON;
+                }
+            }
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+                return JSON;
+            }
+            return CSV;
+        }
+    }
+
+    public static class Record {
+        private final int row;
+        private final Map<String, String> values = new HashMap<>();
+        private String error;
+
+        Record(int row) {
+            this.row = row;
+        }
+
+        public int getRow() { return row; }
+
+        // Trimmed value of a column, or null when missing or empty
+        public String get(String column) { return values.get(column); }
+
+        // Set when the record itself could not be read (e.g. a JSON element that is not an object)
+        public String getError() { return error; }
+    }
+
+    public static ImportRowReader open(InputStream in, Format format, ObjectMapper objectMapper, String... columns) throws IOException {
+        return format == Format.CSV ? new Csv(in, columns) : new Json(in, objectMapper, columns);
+    }
+
+    // Next record, or null at the end of the input
+    public abstract Record next() throws IOException;
+
+    private static String normalize(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static void put(Record record, String column, String value) {
+        if (value != null && !value.isBlank()) {
+            record.values.put(column, value.trim());
+        }
+    }
+
+    private static class Csv extends ImportRowReader {
+        private final BufferedReader reader;
+        private final String[] columns;
+        private int[] positions;
+        private int line;
+
+        Csv(InputStream in, String[] columns) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+            this.columns = columns;
+        }
+
+        @Override
+        public Record next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line == 1 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1);
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                List<String> cells = splitLine(text);
+                if (positions == null && readHeader(cells)) {
+                    continue;
+                }
+                Record record = new Record(line);
+                for (int i = 0; i < columns.length; i++) {
+                    if (positions[i] >= 0 && positions[i] < cells.size()) {
+                        put(record, columns[i], cells.get(positions[i]));
+                    }
+                }
+                return record;
+            }
+            return null;
+        }
+
+        // Returns true when the first row is a header; otherwise the columns are positional
+        private boolean readHeader(List<String> cells) {
+            positions = new int[columns.length];
+            boolean header = false;
+            for (int i = 0; i < columns.length; i++) {
+                positions[i] = -1;
+                for (int cell = 0; cell < cells.size(); cell++) {
+                    if (normalize(cells.get(cell)).equals(normalize(columns[i]))) {
+                        positions[i] = cell;
+                        header = true;
+                    }
+                }
+            }
+            if (!header) {
+                for (int i = 0; i < columns.length; i++) {
+                    positions[i] = i;
+                }
+            }
+            return header;
+        }
+
+        // Comma separated, with "quoted" cells and "" as an escaped quote
+        private static List<String> splitLine(String text) {
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        cell.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            cells.add(cell.toString());
+            return cells;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class Json extends ImportRowReader {
+        private final JsonParser parser;
+        private final String[] columns;
+        private int index;
+
+        Json(InputStream in, ObjectMapper objectMapper, String[] columns) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(in);
+            this.columns = columns;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array");
+            }
+        }
+
+        @Override
+        public Record next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            Record record = new Record(++index);
+            JsonNode node = parser.readValueAsTree();
+            if (node == null || !node.isObject()) {
+                record.error = "Expected an object with " + String.join(", ", columns);
+                return record;
+            }
+            for (String column : columns) {
+                JsonNode value = node.get(column);
+                if (value != null && value.isValueNode() && !value.isNull()) {
+                    put(record, column, value.asText());
+                }
+            }
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
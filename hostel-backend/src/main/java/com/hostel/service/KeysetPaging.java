@@ -0,0 +1,45 @@
+package com.hostel.service;
+
+import com.hostel.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Shared helpers for the admin list endpoints. Every list is keyset-paged on the primary key:
+// the cursor is the last id the client saw and the next slice starts strictly after it.
+public final class KeysetPaging {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private KeysetPaging() {}
+
+    public static Sort.Direction direction(String direction, Sort.Direction defaultDirection) {
+        return Sort.Direction.fromOptionalString(direction).orElse(defaultDirection);
+    }
+
+    public static Pageable firstSlice(Integer size, Sort.Direction direction) {
+        int pageSize = size == null || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return PageRequest.of(0, pageSize, Sort.by(direction, "id"));
+    }
+
+    // Lower bound for ascending scans, null when scanning newest first
+    public static Long afterId(Long cursor, Sort.Direction direction) {
+        return direction.isAscending() ? cursor : null;
+    }
+
+    // Upper bound for descending scans, null when scanning oldest first
+    public static Long beforeId(Long cursor, Sort.Direction direction) {
+        return direction.isDescending() ? cursor : null;
+    }
+
+    public static <E, T> CursorPage<T> toPage(Slice<E> slice, List<T> items, Function<E, Long> idOf) {
+        List<E> content = slice.getContent();
+        Long nextCursor = slice.hasNext() && !content.isEmpty() ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, slice.hasNext());
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.CursorPage;
 import com.hostel.dto.MaintenanceRequestDto;
 import com.hostel.entity.MaintenanceRequest;
 import com.hostel.entity.Room;
@@ -8,8 +9,11 @@ import com.hostel.repository.MaintenanceRequestRepository;
 import com.hostel.repository.RoomRepository;
 import com.hostel.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +30,9 @@ public class MaintenanceRequestService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private DataVersions dataVersions;
+
     public List<MaintenanceRequestDto> getAllMaintenanceRequests() {
         List<MaintenanceRequest> requests = maintenanceRequestRepository.findAll();
         List<MaintenanceRequestDto> requestDtos = new ArrayList<>();
@@ -37,6 +44,24 @@ public class MaintenanceRequestService {
         return requestDtos;
     }
 
+    public CursorPage<MaintenanceRequestDto> getMaintenanceRequestsPage(MaintenanceRequest.Status status, Long roomId,
+                                                                        LocalDateTime from, LocalDateTime to,
+                                                                        Long cursor, Integer size, String direction) {
+        // Newest first unless the caller asks otherwise
+        Sort.Direction sortDirection = KeysetPaging.direction(direction, Sort.Direction.DESC);
+        Slice<MaintenanceRequest> slice = maintenanceRequestRepository.findSlice(status, roomId, from, to,
+                KeysetPaging.afterId(cursor, sortDirection),
+                KeysetPaging.beforeId(cursor, sortDirection),
+                KeysetPaging.firstSlice(size, sortDirection));
+        
+        List<MaintenanceRequestDto> requestDtos = new ArrayList<>(slice.getNumberOfElements());
+        for (MaintenanceRequest request : slice.getContent()) {
+            requestDtos.add(mapToDto(request));
+        }
+        
+        return KeysetPaging.toPage(slice, requestDtos, MaintenanceRequest::getId);
+    }
+
     public List<MaintenanceRequestDto> getMaintenanceRequestsByStudentId(Long studentId) {
         List<MaintenanceRequest> requests = maintenanceRequestRepository.findByStudentId(studentId);
         List<MaintenanceRequestDto> requestDtos = new ArrayList<>();
@@ -94,6 +119,7 @@ public class MaintenanceRequestService {
         request.setStatus(MaintenanceRequest.Status.PENDING);
         
         MaintenanceRequest savedRequest = maintenanceRequestRepository.save(request);
+        dataVersions.changed(DataVersions.Aggregate.MAINTENANCE_REQUESTS);
         return mapToDto(savedRequest);
     }
 
@@ -111,6 +137,7 @@ public class MaintenanceRequestService {
             }
             
             MaintenanceRequest updatedRequest = maintenanceRequestRepository.save(request);
+            dataVersions.changed(DataVersions.Aggregate.MAINTENANCE_REQUESTS);
             return mapToDto(updatedRequest);
         }
         return null;
@@ -118,6 +145,7 @@ public class MaintenanceRequestService {
 
     public void deleteMaintenanceRequest(Long id) {
         maintenanceRequestRepository.deleteById(id);
+        dataVersions.changed(DataVersions.Aggregate.MAINTENANCE_REQUESTS);
     }
     
     private MaintenanceRequestDto mapToDto(MaintenanceRequest request) {
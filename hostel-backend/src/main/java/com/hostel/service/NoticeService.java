@@ -9,9 +9,11 @@ import java.util.List;
 @Service
 public class NoticeService {
     private final NoticeRepository noticeRepository;
+    private final DataVersions dataVersions;
 
-    public NoticeService(NoticeRepository noticeRepository) {
+    public NoticeService(NoticeRepository noticeRepository, DataVersions dataVersions) {
         this.noticeRepository = noticeRepository;
+        this.dataVersions = dataVersions;
     }
 
     public List<Notice> getAllNotices() {
@@ -19,10 +21,13 @@ public class NoticeService {
     }
 
     public Notice createNotice(Notice notice) {
-        return noticeRepository.save(notice);
+        Notice saved = noticeRepository.save(notice);
+        dataVersions.changed(DataVersions.Aggregate.NOTICES);
+        return saved;
     }
 
     public void deleteNotice(Long id) {
         noticeRepository.deleteById(id);
+        dataVersions.changed(DataVersions.Aggregate.NOTICES);
     }
 }
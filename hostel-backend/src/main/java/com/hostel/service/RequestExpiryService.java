@@ -0,0 +1,174 @@
+package com.hostel.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cancels booking and maintenance requests nobody acted on within the configured age, so the open
+// statuses stay small. Each pass is a chunk of rows found through the (status, created_at) index and
+// updated in its own short transaction, until a chunk comes back short. A WAITLISTED request is measured
+// from creation; a PENDING one from when it became PENDING (pending_since, or creation for rows placed
+// before that was recorded), so time spent on the waitlist does not count against the admin. Expiring a
+// PENDING request releases the bed it held. The expired remark is shown to the student with the request.
+@Service
+public class RequestExpiryService {
+
+    private static final String EXPIRED_REMARKS = "Expired: no decision within %d days";
+
+    // Rows are locked for the length of the chunk only. PENDING rows are few (at most one per bed), so the
+    // status prefix of idx_booking_status_created is enough for them.
+    private static final String FIND_STALE_PENDING =
+            "SELECT id, room_id FROM room_booking_requests WHERE status = 'PENDING' "
+                    + "AND COALESCE(pending_since, created_at) < ? LIMIT ? FOR UPDATE";
+
+    private static final String FIND_STALE_WAITLISTED =
+            "SELECT id, room_id FROM room_booking_requests WHERE status = 'WAITLISTED' AND created_at < ? LIMIT ? FOR UPDATE";
+
+    private static final String EXPIRE_BOOKINGS =
+            "UPDATE room_booking_requests SET status = 'CANCELLED', resolved_at = :now, admin_remarks = :remarks "
+                    + "WHERE id IN (:ids) AND status IN ('PENDING', 'WAITLISTED')";
+
+    private static final String EXPIRE_MAINTENANCE =
+            "UPDATE maintenance_requests SET status = 'CANCELLED', resolved_at = ?, remarks = ? "
+                    + "WHERE status = 'PENDING' AND created_at < ? LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    // 0 turns expiry off for that kind of request
+    @Value("${requests.expiry.booking-max-age-days:30}")
+    private int bookingMaxAgeDays;
+
+    @Value("${requests.expiry.maintenance-max-age-days:90}")
+    private int maintenanceMaxAgeDays;
+
+    @Value("${requests.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public RequestExpiryService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${requests.expiry.interval-ms:3600000}",
+            initialDelayString = "${requests.expiry.interval-ms:3600000}")
+    public void scheduledExpiry() {
+        try {
+            expireBookingRequests();
+        } catch (RuntimeException e) {
+            System.err.println("Booking request expiry failed: " + e.getMessage());
+        }
+        try {
+            expireMaintenanceRequests();
+        } catch (RuntimeException e) {
+            System.err.println("Maintenance request expiry failed: " + e.getMessage());
+        }
+    }
+
+    public int expireBookingRequests() {
+        if (bookingMaxAgeDays <= 0) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(bookingMaxAgeDays));
+        String remarks = String.format(EXPIRED_REMARKS, bookingMaxAgeDays);
+        int[] pending = expireBookings(FIND_STALE_PENDING, cutoff, remarks);
+        int[] waitlisted = expireBookings(FIND_STALE_WAITLISTED, cutoff, remarks);
+
+        return finish("booking", pending[0] + waitlisted[0], pending[1] + waitlisted[1], start,
+                DataVersions.Aggregate.BOOKING_REQUESTS);
+    }
+
+    // {rows expired, chunks}
+    private int[] expireBookings(String findStale, Timestamp cutoff, String remarks) {
+        int swept = 0;
+        int chunks = 0;
+        int chunkRows;
+        do {
+            Map<Long, List<Long>> byRoom = new HashMap<>();
+            chunkRows = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                jdbcTemplate.query(findStale, rs -> {
+                    long id = rs.getLong(1);
+                    ids.add(id);
+                    byRoom.computeIfAbsent(rs.getLong(2), k -> new ArrayList<>()).add(id);
+                }, cutoff, chunkSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                return namedParameterJdbcTemplate.update(EXPIRE_BOOKINGS, new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                        .addValue("remarks", remarks));
+            });
+            // After commit: beds held by expired PENDING requests go to the waitlists
+            for (Map.Entry<Long, List<Long>> entry : byRoom.entrySet()) {
+                bookingQueueService.requestsClosed(entry.getKey(), entry.getValue());
+            }
+            swept += chunkRows;
+            chunks++;
+        } while (chunkRows == chunkSize);
+        return new int[]{swept, chunks};
+    }
+
+    public int expireMaintenanceRequests() {
+        if (maintenanceMaxAgeDays <= 0) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(maintenanceMaxAgeDays));
+        String remarks = String.format(EXPIRED_REMARKS, maintenanceMaxAgeDays);
+        int swept = 0;
+        int chunks = 0;
+        int chunkRows;
+        do {
+            // A single statement, so each chunk commits on its own
+            chunkRows = jdbcTemplate.update(EXPIRE_MAINTENANCE, Timestamp.valueOf(LocalDateTime.now()), remarks, cutoff, chunkSize);
+            swept += chunkRows;
+            chunks++;
+        } while (chunkRows == chunkSize);
+
+        return finish("maintenance", swept, chunks, start, DataVersions.Aggregate.MAINTENANCE_REQUESTS);
+    }
+
+    private int finish(String type, int swept, int chunks, long start, DataVersions.Aggregate aggregate) {
+        DistributionSummary.builder("requests.expiry.swept")
+                .description("Requests expired per sweeper run")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(swept);
+        if (swept > 0) {
+            dataVersions.changed(aggregate);
+        }
+        System.out.println("Expired " + swept + " stale " + type + " requests in " + chunks + " chunks ("
+                + (System.currentTimeMillis() - start) + " ms)");
+        return swept;
+    }
+}
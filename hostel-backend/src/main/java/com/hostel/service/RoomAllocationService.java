@@ -0,0 +1,267 @@
+package com.hostel.service;
+
+import com.hostel.dto.AutoAllocationReport;
+import com.hostel.dto.RoomAssignmentDto;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Single place where a student is moved into a room. The capacity check and the
+// assignment run in one transaction holding the room row lock, so concurrent
+// approvals for the same room are serialized and can never overbook it. The student
+// row is locked next, so two moves of the same student cannot both leave the same room.
+// Approving a booking request resolves the request in that same transaction.
+// Bulk auto-allocation plans every unassigned student at once (AllocationPlanner) and applies
+// the plan in one transaction that holds all room locks.
+@Service
+public class RoomAllocationService {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int BATCH_SIZE = 1000;
+
+    // Guarded so a student placed by another path in the meantime is left where they are
+    private static final String ASSIGN_IF_UNASSIGNED = "UPDATE students SET room_id = ?, assigned_at = ? WHERE id = ? AND room_id IS NULL";
+
+    public enum Status {
+        ALLOCATED, ALREADY_ASSIGNED, ROOM_FULL, NOT_FOUND, NOT_PENDING
+    }
+
+    public static class AllocationResult {
+        private final Status status;
+        private final Long previousRoomId;
+
+        public AllocationResult(Status status, Long previousRoomId) {
+            this.status = status;
+            this.previousRoomId = previousRoomId;
+        }
+
+        public Status getStatus() { return status; }
+        public Long getPreviousRoomId() { return previousRoomId; }
+    }
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public RoomAllocationService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public AllocationResult allocate(Long roomId, Long studentId) {
+        return allocate(roomId, studentId, null, null);
+    }
+
+    // Moves the student of a PENDING booking request into its room and marks the request APPROVED, all or nothing.
+    // The request's own held bed is its place; beds held by the room's other PENDING requests are not free.
+    public AllocationResult approve(Long requestId, Long roomId, Long studentId, String adminRemarks) {
+        return allocate(roomId, studentId, requestId, adminRemarks);
+    }
+
+    private AllocationResult allocate(Long roomId, Long studentId, Long requestId, String adminRemarks) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                AllocationResult result = transactionTemplate.execute(status -> {
+                    AllocationResult outcome = tryAllocate(roomId, studentId, requestId, adminRemarks);
+                    // A request for the room the student is already in is still approved
+                    boolean resolved = requestId != null && outcome.getStatus() == Status.ALREADY_ASSIGNED;
+                    if (outcome.getStatus() != Status.ALLOCATED && !resolved) {
+                        status.setRollbackOnly();
+                    }
+                    return outcome;
+                });
+                if (result.getStatus() == Status.ALLOCATED) {
+                    if (result.getPreviousRoomId() != null) {
+                        roomOccupancyIndex.studentRemoved(result.getPreviousRoomId());
+                    }
+                    roomOccupancyIndex.studentAdded(roomId);
+                    dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+                }
+                return result;
+            } catch (PessimisticLockingFailureException e) {
+                // Lock wait timeout or deadlock against another allocation, back off and retry
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new RuntimeException("Room " + roomId + " is busy, please try again");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Locks in the order every approval path uses: room, then request, then student
+    private AllocationResult tryAllocate(Long roomId, Long studentId, Long requestId, String adminRemarks) {
+        // Takes the room row lock; every other allocation into this room waits here
+        Integer capacity = roomRepository.lockCapacityById(roomId);
+        if (capacity == null) {
+            return new AllocationResult(Status.NOT_FOUND, null);
+        }
+        if (requestId != null) {
+            List<Object[]> request = roomBookingRequestRepository.lockDecisionRowsByIdIn(List.of(requestId));
+            if (request.isEmpty() || !RoomBookingRequest.Status.PENDING.name().equals(String.valueOf(request.get(0)[3]))) {
+                return new AllocationResult(Status.NOT_PENDING, null);
+            }
+        }
+        // The previous room is read under the student lock, so a concurrent move of the same student waits here
+        List<Object[]> locked = studentRepository.lockRoomIdsByIdIn(List.of(studentId));
+        if (locked.isEmpty()) {
+            return new AllocationResult(Status.NOT_FOUND, null);
+        }
+        Long previousRoomId = locked.get(0)[1] != null ? ((Number) locked.get(0)[1]).longValue() : null;
+        LocalDateTime now = LocalDateTime.now();
+        if (roomId.equals(previousRoomId)) {
+            resolve(requestId, adminRemarks, now);
+            return new AllocationResult(Status.ALREADY_ASSIGNED, previousRoomId);
+        }
+
+        long usedBeds;
+        if (requestId != null) {
+            // [roomId, capacity, occupancy, held]; the request being approved holds one of the held beds
+            Object[] usage = roomRepository.findBedUsageByIdIn(List.of(roomId), RoomBookingRequest.Status.PENDING).get(0);
+            usedBeds = (Long) usage[2] + (Long) usage[3] - 1;
+        } else {
+            usedBeds = studentRepository.countByRoomId(roomId);
+        }
+        if (usedBeds >= capacity) {
+            return new AllocationResult(Status.ROOM_FULL, previousRoomId);
+        }
+
+        // A move closes the previous assignment in the history, in the same transaction
+        Student student = studentRepository.findById(studentId).orElseThrow();
+        assignmentHistoryService.recordEnded(student, now);
+        Room room = roomRepository.getReferenceById(roomId);
+        student.setRoom(room);
+        student.setAssignedAt(now);
+        studentRepository.save(student);
+        resolve(requestId, adminRemarks, now);
+        return new AllocationResult(Status.ALLOCATED, previousRoomId);
+    }
+
+    private void resolve(Long requestId, String adminRemarks, LocalDateTime now) {
+        if (requestId != null) {
+            jdbcTemplate.update(BookingDecisionService.RESOLVE, RoomBookingRequest.Status.APPROVED.name(), adminRemarks,
+                    Timestamp.valueOf(now), requestId);
+            dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        }
+    }
+
+    // Dry run: the plan for the current state, nothing is written
+    public AutoAllocationReport previewAutoAllocation() {
+        return readOnlyTransaction.execute(status -> planAutoAllocation(true));
+    }
+
+    // Plans again under the room locks, so the result can differ from an earlier preview if rooms changed since
+    public AutoAllocationReport autoAllocate() {
+        AutoAllocationReport report = transactionTemplate.execute(status -> {
+            // Locking read first: single allocations wait on these locks until commit, and the plain reads
+            // below get a snapshot taken after the locks were granted
+            roomRepository.lockAll();
+            return planAutoAllocation(false);
+        });
+        if (report.getAssigned() > 0) {
+            roomOccupancyIndex.rebuild();
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+        }
+        return report;
+    }
+
+    private AutoAllocationReport planAutoAllocation(boolean dryRun) {
+        List<Object[]> rooms = roomRepository.findRoomOccupancies();
+        long[] studentIds = studentRepository.findIdsWithoutRoom().stream().mapToLong(Long::longValue).toArray();
+
+        int[] capacities = new int[rooms.size()];
+        int[] occupancies = new int[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            Object[] row = rooms.get(i);
+            capacities[i] = (Integer) row[2];
+            occupancies[i] = ((Long) row[3]).intValue();
+        }
+
+        long start = System.nanoTime();
+        AllocationPlanner.Plan plan = AllocationPlanner.plan(studentIds, capacities, occupancies);
+        double planMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        List<RoomAssignmentDto> assignments = new ArrayList<>(plan.getAssigned());
+        for (int i = 0; i < studentIds.length; i++) {
+            int room = plan.getRoomIndex()[i];
+            if (room >= 0) {
+                Object[] row = rooms.get(room);
+                assignments.add(new RoomAssignmentDto(studentIds[i], (Long) row[0], (String) row[1]));
+            }
+        }
+
+        int assigned = assignments.size();
+        if (!dryRun && !assignments.isEmpty()) {
+            Timestamp assignedAt = Timestamp.valueOf(LocalDateTime.now());
+            int[][] results = jdbcTemplate.batchUpdate(ASSIGN_IF_UNASSIGNED, assignments, BATCH_SIZE, (ps, assignment) -> {
+                ps.setLong(1, assignment.getRoomId());
+                ps.setTimestamp(2, assignedAt);
+                ps.setLong(3, assignment.getStudentId());
+            });
+            assigned = 0;
+            for (int[] batch : results) {
+                for (int rows : batch) {
+                    assigned += rows == Statement.SUCCESS_NO_INFO ? 1 : rows;
+                }
+            }
+            System.out.println("Auto-allocation placed " + assigned + " of " + studentIds.length + " waiting students in "
+                    + plan.getRoomsUsed() + " rooms");
+        }
+
+        AutoAllocationReport report = new AutoAllocationReport();
+        report.setDryRun(dryRun);
+        report.setWaitingStudents(studentIds.length);
+        report.setFreeBeds(plan.getFreeBeds());
+        report.setAssigned(assigned);
+        report.setUnassigned(studentIds.length - assigned);
+        report.setRoomsUsed(plan.getRoomsUsed());
+        report.setPlanMillis(planMillis);
+        report.setAssignments(assignments);
+        return report;
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Room allocation interrupted");
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.RoomAvailabilityDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live room availability over Server-Sent Events. Subscribers are async requests parked in the
+// servlet container, so an idle connection holds no thread. One scheduler thread builds the events:
+// every flush it drains the rooms RoomOccupancyIndex saw change (the index is only touched after a
+// change commits) and serializes them once. It never writes to a socket itself; each event is offered
+// to every subscriber's bounded queue, and a small sender pool drains the queues. A client too slow to
+// keep up fills its queue and is dropped (EventSource reconnects and starts again from a snapshot),
+// so one stalled connection cannot hold back the others or the scheduler.
+// New subscribers get a snapshot first; everyone gets a heartbeat comment and a periodic full
+// snapshot, so a client that missed something converges without reconnecting.
+@Component
+public class RoomAvailabilityBroadcaster {
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rooms.availability.flush-ms:250}")
+    private long flushMs;
+
+    @Value("${rooms.availability.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${rooms.availability.resync-seconds:300}")
+    private long resyncSeconds;
+
+    // Clients reconnect (EventSource does so on its own) when the stream ends
+    @Value("${rooms.availability.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventId = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+    private final int queueSize;
+    private final Counter dropped;
+
+    public RoomAvailabilityBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${rooms.availability.sender-threads:4}") int senderThreads,
+            @Value("${rooms.availability.queue-size:32}") int queueSize) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-availability");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "room-availability-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queueSize = queueSize;
+        Gauge.builder("rooms.availability.subscribers", subscribers, Set::size)
+                .description("Open live room availability streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("rooms.availability.dropped")
+                .description("Streams closed because the client fell a full queue behind")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(guarded(this::flush), flushMs, flushMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(guarded(this::heartbeat), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(guarded(this::resync), resyncSeconds, resyncSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Joined on the scheduler thread, so the snapshot is queued ahead of any broadcast to this subscriber
+        scheduler.execute(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> snapshot = event("snapshot", roomOccupancyIndex.snapshot());
+            if (snapshot != null && offer(subscriber, snapshot)) {
+                subscribers.add(subscriber);
+            }
+        });
+        return emitter;
+    }
+
+    private void flush() {
+        if (roomOccupancyIndex.takeResyncNeeded()) {
+            resync();
+            return;
+        }
+        List<RoomAvailabilityDto> changes = roomOccupancyIndex.drainChanges();
+        if (!changes.isEmpty() && !subscribers.isEmpty()) {
+            broadcast(event("delta", changes));
+        }
+    }
+
+    private void resync() {
+        if (!subscribers.isEmpty()) {
+            broadcast(event("snapshot", roomOccupancyIndex.snapshot()));
+        }
+    }
+
+    private void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (event == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!offer(subscriber, event)) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    // Never blocks: a full queue means the client is not reading, and it is dropped. The emitter is
+    // closed by the sender draining the queue, since a sender stuck in a write holds the emitter's lock.
+    private boolean offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (subscriber.closed.get()) {
+            return false;
+        }
+        if (!subscriber.queue.offer(event)) {
+            subscriber.closed.set(true);
+            dropped.increment();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return !subscriber.closed.get();
+    }
+
+    // Runs on a sender thread; at most one drain per subscriber at a time, so its events stay in order
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                if (!send(subscriber.emitter, event)) {
+                    // send() has already ended the stream with the error
+                    subscriber.closed.set(true);
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            if (subscriber.closed.get()) {
+                // Dropped for falling behind
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.draining.set(false);
+            // An event offered after the queue looked empty but before the flag was cleared
+            if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the stream already ended
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // A periodic task that throws is never run again, so failures are logged and swallowed
+    private static Runnable guarded(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Room availability broadcast failed: " + e.getMessage());
+            }
+        };
+    }
+
+    // Serialized once and shared by every subscriber; null if serialization fails
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, List<RoomAvailabilityDto> rooms) {
+        try {
+            return SseEmitter.event()
+                    .id(Long.toString(eventId.incrementAndGet()))
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(rooms), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialize room availability: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.hostel.service;
 
+import com.hostel.dto.BookingTicketDto;
+import com.hostel.dto.CursorPage;
 import com.hostel.dto.RoomBookingRequestDto;
 import com.hostel.entity.Room;
 import com.hostel.entity.RoomBookingRequest;
@@ -8,15 +10,25 @@ import com.hostel.repository.RoomBookingRequestRepository;
 import com.hostel.repository.RoomRepository;
 import com.hostel.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class RoomBookingRequestService {
 
+    // Statuses covered by uk_booking_pending
+    private static final Set<RoomBookingRequest.Status> OPEN_STATUSES = EnumSet.of(
+            RoomBookingRequest.Status.QUEUED, RoomBookingRequest.Status.PENDING, RoomBookingRequest.Status.WAITLISTED);
+
     @Autowired
     private RoomBookingRequestRepository roomBookingRequestRepository;
     
@@ -25,6 +37,15 @@ public class RoomBookingRequestService {
     
     @Autowired
     private StudentRepository studentRepository;
+    
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private DataVersions dataVersions;
 
     public List<RoomBookingRequestDto> getAllBookingRequests() {
         List<RoomBookingRequest> requests = roomBookingRequestRepository.findAll();
@@ -37,6 +58,24 @@ public class RoomBookingRequestService {
         return requestDtos;
     }
 
+    public CursorPage<RoomBookingRequestDto> getBookingRequestsPage(RoomBookingRequest.Status status, Long roomId,
+                                                                    LocalDateTime from, LocalDateTime to,
+                                                                    Long cursor, Integer size, String direction) {
+        // Newest first unless the caller asks otherwise
+        Sort.Direction sortDirection = KeysetPaging.direction(direction, Sort.Direction.DESC);
+        Slice<RoomBookingRequest> slice = roomBookingRequestRepository.findSlice(status, roomId, from, to,
+                KeysetPaging.afterId(cursor, sortDirection),
+                KeysetPaging.beforeId(cursor, sortDirection),
+                KeysetPaging.firstSlice(size, sortDirection));
+        
+        List<RoomBookingRequestDto> requestDtos = new ArrayList<>(slice.getNumberOfElements());
+        for (RoomBookingRequest request : slice.getContent()) {
+            requestDtos.add(mapToDto(request));
+        }
+        
+        return KeysetPaging.toPage(slice, requestDtos, RoomBookingRequest::getId);
+    }
+
     public List<RoomBookingRequestDto> getBookingRequestsByStudentId(Long studentId) {
         List<RoomBookingRequest> requests = roomBookingRequestRepository.findByStudentId(studentId);
         List<RoomBookingRequestDto> requestDtos = new ArrayList<>();
@@ -78,7 +117,8 @@ public class RoomBookingRequestService {
         return null;
     }
 
-    public RoomBookingRequestDto createBookingRequest(Long studentId, Long roomId) {
+    // Accepts the request into the booking queue; the allocator decides later whether it holds a bed or waits for one
+    public BookingTicketDto createBookingRequest(Long studentId, Long roomId) {
         // Get the student and room entities
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -91,30 +131,34 @@ public class RoomBookingRequestService {
             throw new RuntimeException("Student is already assigned to this room");
         }
         
-        // Check if room is available (not at capacity)
-        List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-        if (studentsInRoom.size() >= room.getCapacity()) {
-            throw new RuntimeException("Room is at full capacity");
-        }
-        
-        // Check if student already has a pending request for this room
-        List<RoomBookingRequest> existingRequests = roomBookingRequestRepository.findByStudentId(studentId);
-        for (RoomBookingRequest existingRequest : existingRequests) {
-            if (existingRequest.getRoom().getId().equals(roomId) && 
-                existingRequest.getStatus() == RoomBookingRequest.Status.PENDING) {
-                throw new RuntimeException("Student already has a pending request for this room");
-            }
+        // Check if student already has an open request for this room
+        if (roomBookingRequestRepository.existsByStudentIdAndRoomIdAndStatusIn(studentId, roomId, OPEN_STATUSES)) {
+            throw new RuntimeException("Student already has a pending request for this room");
         }
         
         // Create new booking request
         RoomBookingRequest request = RoomBookingRequest.builder()
                 .student(student)
                 .room(room)
-                .status(RoomBookingRequest.Status.PENDING)
+                .status(RoomBookingRequest.Status.QUEUED)
                 .createdAt(java.time.LocalDateTime.now())
                 .build();
-        RoomBookingRequest savedRequest = roomBookingRequestRepository.save(request);
-        return mapToDto(savedRequest);
+        RoomBookingRequest savedRequest;
+        try {
+            savedRequest = roomBookingRequestRepository.save(request);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent double-submit got past the check above; uk_booking_pending let only one through
+            if (roomBookingRequestRepository.existsByStudentIdAndRoomIdAndStatusIn(studentId, roomId, OPEN_STATUSES)) {
+                throw new RuntimeException("Student already has a pending request for this room");
+            }
+            throw e;
+        }
+        dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        return bookingQueueService.enqueue(savedRequest.getId(), roomId);
+    }
+
+    public BookingTicketDto getBookingTicket(Long id) {
+        return bookingQueueService.getTicket(id);
     }
 
     public RoomBookingRequestDto updateBookingRequest(Long id, RoomBookingRequest.Status newStatus, String adminRemarks) {
@@ -122,42 +166,61 @@ public class RoomBookingRequestService {
         if (existingRequest.isPresent()) {
             RoomBookingRequest request = existingRequest.get();
             
+            if (newStatus == RoomBookingRequest.Status.APPROVED) {
+                // Queued and waitlisted requests wait for the booking queue to give them a bed first
+                if (request.getStatus() != RoomBookingRequest.Status.PENDING) {
+                    throw new RuntimeException("Only pending requests can be approved; this one is " + request.getStatus());
+                }
+                // The move and the approval commit together, under the room lock so concurrent approvals cannot overbook
+                RoomAllocationService.AllocationResult result = roomAllocationService.approve(
+                        id, request.getRoom().getId(), request.getStudent().getId(), adminRemarks);
+                if (result.getStatus() == RoomAllocationService.Status.ROOM_FULL) {
+                    throw new RuntimeException("Room is at full capacity");
+                }
+                if (result.getStatus() == RoomAllocationService.Status.NOT_FOUND) {
+                    throw new RuntimeException("Student or room no longer exists");
+                }
+                if (result.getStatus() == RoomAllocationService.Status.NOT_PENDING) {
+                    throw new RuntimeException("Request is no longer pending");
+                }
+                // The student's old bed is free now
+                bookingQueueService.bedsFreed(result.getPreviousRoomId());
+                return getBookingRequestById(id);
+            }
+            
+            // Only the booking queue gives out beds: it puts requests in line and promotes them after a capacity check
+            if (OPEN_STATUSES.contains(newStatus) && newStatus != request.getStatus()) {
+                throw new RuntimeException("Requests are moved to " + newStatus + " by the booking queue, not by an admin");
+            }
+            
+            boolean heldBed = request.getStatus() == RoomBookingRequest.Status.PENDING;
+            
             // Update status and remarks
             request.setStatus(newStatus);
             request.setAdminRemarks(adminRemarks);
             
-            if (newStatus == RoomBookingRequest.Status.APPROVED) {
-                request.setResolvedAt(java.time.LocalDateTime.now());
-                
-                // Perform the actual room change
-                Student student = request.getStudent();
-                Room newRoom = request.getRoom();
-                Room oldRoom = student.getRoom();
-                
-                student.setRoom(newRoom);
-                studentRepository.save(student);
-                
-                // Update new room occupancy status
-                newRoom.updateOccupiedStatus();
-                roomRepository.save(newRoom);
-                
-                // Update old room occupancy status if it existed
-                if (oldRoom != null) {
-                    oldRoom.updateOccupiedStatus();
-                    roomRepository.save(oldRoom);
-                }
-            } else if (newStatus == RoomBookingRequest.Status.REJECTED) {
+            if (newStatus == RoomBookingRequest.Status.REJECTED) {
                 request.setResolvedAt(java.time.LocalDateTime.now());
             }
             
             RoomBookingRequest updatedRequest = roomBookingRequestRepository.save(request);
+            dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+            if (heldBed && newStatus != RoomBookingRequest.Status.PENDING) {
+                // A rejected or cancelled pending request gives its bed back to the room's waitlist
+                bookingQueueService.bedsFreed(request.getRoom().getId());
+            }
             return mapToDto(updatedRequest);
         }
         return null;
     }
 
     public void deleteBookingRequest(Long id) {
+        RoomBookingRequest request = roomBookingRequestRepository.findById(id).orElse(null);
         roomBookingRequestRepository.deleteById(id);
+        dataVersions.changed(DataVersions.Aggregate.BOOKING_REQUESTS);
+        if (request != null && request.getStatus() == RoomBookingRequest.Status.PENDING) {
+            bookingQueueService.bedsFreed(request.getRoom().getId());
+        }
     }
     
     private RoomBookingRequestDto mapToDto(RoomBookingRequest request) {
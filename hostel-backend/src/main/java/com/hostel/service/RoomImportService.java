@@ -0,0 +1,207 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.RoomImportReport;
+import com.hostel.dto.RoomImportRow;
+import com.hostel.entity.Room;
+import com.hostel.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk room creation from a CSV or JSON upload. The input is parsed as a stream and handled in chunks:
+// one set query finds the room numbers that already exist, the rest go in as one JDBC batch, and each
+// chunk commits on its own. Every input row gets a line in the report, created or with the reason it was not.
+@Service
+public class RoomImportService {
+
+    private static final String INSERT_ROOM = "INSERT INTO rooms (room_number, capacity, occupied) VALUES (?, ?, FALSE)";
+
+    // A concurrent createRoom can take a number between the lookup and the insert; the chunk is then re-checked
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rooms.import.batch-size:1000}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public RoomImportReport importRooms(InputStream in, ImportRowReader.Format format) {
+        long start = System.currentTimeMillis();
+        RoomImportReport report = new RoomImportReport();
+        Set<String> seen = new HashSet<>();
+        List<RoomImportRow> chunk = new ArrayList<>(batchSize);
+        try (ImportRowReader reader = ImportRowReader.open(in, format, objectMapper, "roomNumber", "capacity")) {
+            ImportRowReader.Record record;
+            while ((record = reader.next()) != null) {
+                RoomImportRow row = toRow(record);
+                validate(row, seen);
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, report);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable input ends the import; rows read before it are still imported
+            RoomImportRow failed = new RoomImportRow(report.getTotal() + chunk.size() + 1, null, null);
+            failed.setError("Unreadable input: " + e.getMessage());
+            chunk.add(failed);
+        }
+        importChunk(chunk, report);
+
+        System.out.println("Room import: " + report.getCreated() + " created, " + report.getFailed() + " failed in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return report;
+    }
+
+    private static RoomImportRow toRow(ImportRowReader.Record record) {
+        RoomImportRow row = new RoomImportRow(record.getRow(), record.get("roomNumber"), null);
+        String capacity = record.get("capacity");
+        if (record.getError() != null) {
+            row.setError(record.getError());
+        } else if (capacity != null) {
+            try {
+                row.setCapacity(Integer.parseInt(capacity));
+            } catch (NumberFormatException e) {
+                row.setError("Capacity must be a whole number");
+            }
+        }
+        return row;
+    }
+
+    private void validate(RoomImportRow row, Set<String> seen) {
+        if (row.getError() != null) {
+            return;
+        }
+        String roomNumber = row.getRoomNumber();
+        Integer capacity = row.getCapacity();
+        // Same limits as the Room entity
+        if (roomNumber == null || roomNumber.isBlank()) {
+            row.setError("Room number cannot be blank");
+        } else if (roomNumber.length() > 50) {
+            row.setError("Room number must be between 1 and 50 characters");
+        } else if (capacity == null) {
+            row.setError("Capacity cannot be null");
+        } else if (capacity < 1) {
+            row.setError("Capacity must be at least 1");
+        } else if (capacity > 100) {
+            row.setError("Capacity cannot exceed 100");
+        } else if (!seen.add(key(roomNumber))) {
+            row.setError("Duplicate room number in file");
+        }
+    }
+
+    private void importChunk(List<RoomImportRow> chunk, RoomImportReport report) {
+        Map<String, RoomImportRow> pending = new LinkedHashMap<>();
+        for (RoomImportRow row : chunk) {
+            if (row.getError() == null) {
+                pending.put(row.getRoomNumber(), row);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            ChunkResult result = null;
+            for (int attempt = 1; result == null && attempt <= MAX_ATTEMPTS; attempt++) {
+                try {
+                    result = transactionTemplate.execute(status -> insertChunk(pending));
+                } catch (DuplicateKeyException e) {
+                    System.out.println("Room import chunk hit a concurrently created room number, retrying (attempt " + attempt + ")");
+                }
+            }
+
+            for (RoomImportRow row : pending.values()) {
+                if (result == null) {
+                    row.setError("Could not import: room numbers kept changing concurrently");
+                } else if (result.existing.contains(key(row.getRoomNumber()))) {
+                    row.setError("Room number already exists");
+                } else {
+                    row.setRoomId(result.createdIds.get(row.getRoomNumber()));
+                    // Only after commit, so the index never lists a room that was rolled back
+                    roomOccupancyIndex.putRoom(Room.builder()
+                            .id(row.getRoomId())
+                            .roomNumber(row.getRoomNumber())
+                            .capacity(row.getCapacity())
+                            .occupied(false)
+                            .build());
+                }
+            }
+            dataVersions.changed(DataVersions.Aggregate.ROOMS);
+        }
+
+        for (RoomImportRow row : chunk) {
+            report.add(row);
+        }
+    }
+
+    private ChunkResult insertChunk(Map<String, RoomImportRow> pending) {
+        ChunkResult result = new ChunkResult();
+        for (Object[] row : roomRepository.findIdsByRoomNumberIn(pending.keySet())) {
+            result.existing.add(key((String) row[1]));
+        }
+
+        List<RoomImportRow> toInsert = new ArrayList<>(pending.size());
+        for (RoomImportRow row : pending.values()) {
+            if (!result.existing.contains(key(row.getRoomNumber()))) {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return result;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ROOM, toInsert, toInsert.size(), (ps, row) -> {
+            ps.setString(1, row.getRoomNumber());
+            ps.setInt(2, row.getCapacity());
+        });
+        // Ids come from the same set lookup rather than per-row generated keys
+        List<String> inserted = toInsert.stream().map(RoomImportRow::getRoomNumber).toList();
+        for (Object[] row : roomRepository.findIdsByRoomNumberIn(inserted)) {
+            result.createdIds.put((String) row[1], (Long) row[0]);
+        }
+        return result;
+    }
+
+    // MySQL's default collation compares room numbers case-insensitively, so duplicates are matched that way too
+    private static String key(String roomNumber) {
+        return roomNumber.toLowerCase(Locale.ROOT);
+    }
+
+    private static class ChunkResult {
+        private final Set<String> existing = new HashSet<>();
+        private final Map<String, Long> createdIds = new HashMap<>();
+    }
+}
@@ -0,0 +1,323 @@
+package com.hostel.service;
+
+import com.hostel.dto.RoomAvailabilityDto;
+import com.hostel.dto.RoomDto;
+import com.hostel.entity.Room;
+import com.hostel.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+// In-memory room id -> head count/capacity view backing the student available-rooms listing.
+// Built from one grouped query at startup and kept current by the room change paths in
+// RoomService and RoomBookingRequestService. Changed rooms are also collected for
+// RoomAvailabilityBroadcaster, which pushes them to live availability subscribers.
+@Component
+public class RoomOccupancyIndex {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    // Room ids in a sorted long[] with the slots alongside, replaced whole when rooms are added or
+    // removed (rare) and read without locking; head counts change in place
+    private volatile Table table = Table.EMPTY;
+
+    // Head count changes share the read lock; room changes and the swap after a rebuild take the write
+    // lock, so no change lands on a table that is being replaced
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Non-null while a rebuild loads: changes made meanwhile, replayed onto the loaded table before the swap
+    private volatile Queue<UnaryOperator<Table>> journal;
+
+    // Rooms changed since the broadcaster last drained them; a rebuild asks for a full resync instead
+    private final Set<Long> changedRooms = ConcurrentHashMap.newKeySet();
+    private volatile boolean resyncNeeded;
+
+    private final TransactionTemplate loadTransaction;
+
+    public RoomOccupancyIndex(PlatformTransactionManager transactionManager) {
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        reload();
+    }
+
+    // Compares the index with the database, swaps in a freshly loaded copy and reports drifted rooms
+    public Map<String, Object> verifyAndRebuild() {
+        Table[] swapped = reload();
+        Table previous = swapped[0];
+        Table fresh = swapped[1];
+
+        int mismatches = 0;
+        for (int i = 0; i < fresh.roomIds.length; i++) {
+            Slot cached = previous.get(fresh.roomIds[i]);
+            if (cached == null || !cached.sameAs(fresh.slots[i])) {
+                mismatches++;
+            }
+        }
+        for (long roomId : previous.roomIds) {
+            if (fresh.get(roomId) == null) {
+                mismatches++;
+            }
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("rooms", fresh.roomIds.length);
+        report.put("mismatches", mismatches);
+        return report;
+    }
+
+    public List<RoomDto> getAvailableRooms() {
+        Table current = table;
+        List<RoomDto> roomDtos = new ArrayList<>();
+        for (int i = 0; i < current.roomIds.length; i++) {
+            Slot slot = current.slots[i];
+            if (slot.occupancy.get() < slot.capacity) {
+                roomDtos.add(new RoomDto(current.roomIds[i], slot.roomNumber, slot.capacity, false, new ArrayList<>()));
+            }
+        }
+        return roomDtos;
+    }
+
+    public void putRoom(Room room) {
+        long roomId = room.getId();
+        String roomNumber = room.getRoomNumber();
+        int capacity = room.getCapacity();
+        changeRooms(t -> t.with(roomId, roomNumber, capacity));
+        changedRooms.add(roomId);
+    }
+
+    public void removeRoom(Long roomId) {
+        long id = roomId;
+        changeRooms(t -> t.without(id));
+        changedRooms.add(roomId);
+    }
+
+    public void studentAdded(Long roomId) {
+        changeOccupancy(roomId, 1);
+    }
+
+    // Adds and removes are applied after commit, so two moves through a room can arrive here in either
+    // order; a removal may briefly take the count below zero and the matching add brings it back
+    public void studentRemoved(Long roomId) {
+        changeOccupancy(roomId, -1);
+    }
+
+    // Current state of every room
+    public List<RoomAvailabilityDto> snapshot() {
+        Table current = table;
+        List<RoomAvailabilityDto> rooms = new ArrayList<>(current.roomIds.length);
+        for (int i = 0; i < current.roomIds.length; i++) {
+            rooms.add(current.slots[i].toAvailability(current.roomIds[i]));
+        }
+        return rooms;
+    }
+
+    // Current state of the rooms changed since the last call; several changes to a room collapse into one entry
+    public List<RoomAvailabilityDto> drainChanges() {
+        Table current = table;
+        List<RoomAvailabilityDto> changes = new ArrayList<>();
+        for (Long roomId : changedRooms) {
+            changedRooms.remove(roomId);
+            Slot slot = current.get(roomId);
+            changes.add(slot != null ? slot.toAvailability(roomId) : new RoomAvailabilityDto(roomId, null, 0, 0, true));
+        }
+        return changes;
+    }
+
+    // True once after each rebuild; the changes collected until then are superseded by the snapshot
+    public boolean takeResyncNeeded() {
+        if (!resyncNeeded) {
+            return false;
+        }
+        resyncNeeded = false;
+        changedRooms.clear();
+        return true;
+    }
+
+    private void changeOccupancy(long roomId, int delta) {
+        lock.readLock().lock();
+        try {
+            if (table.add(roomId, delta)) {
+                changedRooms.add(roomId);
+            }
+            Queue<UnaryOperator<Table>> pending = journal;
+            if (pending != null) {
+                pending.add(t -> {
+                    t.add(roomId, delta);
+                    return t;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void changeRooms(UnaryOperator<Table> change) {
+        lock.writeLock().lock();
+        try {
+            table = change.apply(table);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Loads the rooms while changes keep landing on the current table, replays the changes made during
+    // the load onto the loaded one and swaps it in; returns {previous, loaded}. Changes are applied after
+    // their commit, so the ones arriving once the load's query starts are the ones it does not see. The
+    // journal starts inside the load's transaction, after its connection is taken, so a wait for a
+    // pooled connection does not widen the gap between the two. A change committed just before the
+    // query but applied just after the journal starts is counted twice; verifyAndRebuild corrects it.
+    private synchronized Table[] reload() {
+        Table loaded;
+        try {
+            loaded = loadTransaction.execute(status -> {
+                lock.writeLock().lock();
+                try {
+                    journal = new ConcurrentLinkedQueue<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return load();
+            });
+        } catch (RuntimeException e) {
+            journal = null;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (UnaryOperator<Table> change : journal) {
+                loaded = change.apply(loaded);
+            }
+            journal = null;
+            Table previous = table;
+            table = loaded;
+            resyncNeeded = true;
+            return new Table[]{previous, loaded};
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Table load() {
+        List<Object[]> rows = roomRepository.findRoomOccupancies();
+        long[] roomIds = new long[rows.size()];
+        Slot[] slots = new Slot[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            roomIds[i] = (Long) row[0];
+            slots[i] = new Slot((String) row[1], ((Number) row[2]).intValue(), ((Number) row[3]).intValue());
+        }
+        return new Table(roomIds, slots);
+    }
+
+    private static final class Table {
+        private static final Table EMPTY = new Table(new long[0], new Slot[0]);
+
+        // Ascending
+        private final long[] roomIds;
+        private final Slot[] slots;
+
+        private Table(long[] roomIds, Slot[] slots) {
+            this.roomIds = roomIds;
+            this.slots = slots;
+        }
+
+        private Slot get(long roomId) {
+            int i = Arrays.binarySearch(roomIds, roomId);
+            return i >= 0 ? slots[i] : null;
+        }
+
+        private boolean add(long roomId, int delta) {
+            Slot slot = get(roomId);
+            if (slot == null) {
+                return false;
+            }
+            slot.occupancy.addAndGet(delta);
+            return true;
+        }
+
+        // A copy with the room added, or renamed/resized keeping its head count
+        private Table with(long roomId, String roomNumber, int capacity) {
+            int i = Arrays.binarySearch(roomIds, roomId);
+            if (i >= 0) {
+                Slot[] copy = slots.clone();
+                copy[i] = new Slot(roomNumber, capacity, slots[i].occupancy.get());
+                return new Table(roomIds, copy);
+            }
+            int at = -i - 1;
+            long[] ids = new long[roomIds.length + 1];
+            Slot[] copy = new Slot[slots.length + 1];
+            System.arraycopy(roomIds, 0, ids, 0, at);
+            System.arraycopy(slots, 0, copy, 0, at);
+            ids[at] = roomId;
+            copy[at] = new Slot(roomNumber, capacity, 0);
+            System.arraycopy(roomIds, at, ids, at + 1, roomIds.length - at);
+            System.arraycopy(slots, at, copy, at + 1, slots.length - at);
+            return new Table(ids, copy);
+        }
+
+        private Table without(long roomId) {
+            int i = Arrays.binarySearch(roomIds, roomId);
+            if (i < 0) {
+                return this;
+            }
+            long[] ids = new long[roomIds.length - 1];
+            Slot[] copy = new Slot[slots.length - 1];
+            System.arraycopy(roomIds, 0, ids, 0, i);
+            System.arraycopy(slots, 0, copy, 0, i);
+            System.arraycopy(roomIds, i + 1, ids, i, roomIds.length - i - 1);
+            System.arraycopy(slots, i + 1, copy, i, slots.length - i - 1);
+            return new Table(ids, copy);
+        }
+    }
+
+    private static final class Slot {
+        private final String roomNumber;
+        private final int capacity;
+        private final AtomicInteger occupancy;
+
+        private Slot(String roomNumber, int capacity, int occupancy) {
+            this.roomNumber = roomNumber;
+            this.capacity = capacity;
+            this.occupancy = new AtomicInteger(occupancy);
+        }
+
+        private RoomAvailabilityDto toAvailability(long roomId) {
+            return new RoomAvailabilityDto(roomId, roomNumber, Math.max(0, occupancy.get()), capacity, false);
+        }
+
+        private boolean sameAs(Slot other) {
+            return capacity == other.capacity
+                    && occupancy.get() == other.occupancy.get()
+                    && roomNumber.equals(other.roomNumber);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.CursorPage;
 import com.hostel.dto.RoomDto;
 import com.hostel.dto.StudentSummaryDto;
 import com.hostel.dto.UserDisplayDto;
@@ -8,78 +9,90 @@ import com.hostel.entity.Student;
 import com.hostel.repository.RoomRepository;
 import com.hostel.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
 public class RoomService {
 
+    private static final String UNASSIGN = "UPDATE students SET room_id = NULL, assigned_at = NULL WHERE id = ?";
+
     @Autowired
     private RoomRepository roomRepository;
 
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     public List<RoomDto> getAllRooms() {
         List<Room> rooms = roomRepository.findAll();
-        List<RoomDto> roomDtos = new ArrayList<>();
         
-        for (Room room : rooms) {
-            // Get students assigned to this room
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-            List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-            
-            for (Student student : studentsInRoom) {
-                if (student.getUser() != null) {
-                    UserDisplayDto userDto = new UserDisplayDto(student.getUser().getId(), student.getUser().getName(), student.getUser().getEmail(), student.getUser().getRole().name());
-                    studentSummaryDtos.add(new StudentSummaryDto(student.getId(), userDto));
-                }
-            }
-            
-            boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-            RoomDto roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
-            roomDtos.add(roomDto);
-        }
+        // Load every assigned student once and group by room instead of querying per room
+        return toRoomDtos(rooms, studentRepository.findAllAssignedStudents());
+    }
+
+    public CursorPage<RoomDto> getRoomsPage(Long cursor, Integer size, String direction) {
+        Sort.Direction sortDirection = KeysetPaging.direction(direction, Sort.Direction.ASC);
+        Slice<Room> slice = roomRepository.findSlice(
+                KeysetPaging.afterId(cursor, sortDirection),
+                KeysetPaging.beforeId(cursor, sortDirection),
+                KeysetPaging.firstSlice(size, sortDirection));
         
-        return roomDtos;
+        List<Long> roomIds = slice.getContent().stream().map(Room::getId).toList();
+        List<Student> students = roomIds.isEmpty() ? Collections.emptyList() : studentRepository.findStudentsByRoomIdIn(roomIds);
+        return KeysetPaging.toPage(slice, toRoomDtos(slice.getContent(), students), Room::getId);
     }
 
     public List<RoomDto> getAvailableRooms() {
-        List<Room> rooms = roomRepository.findAll();
-        List<RoomDto> roomDtos = new ArrayList<>();
-        
-        for (Room room : rooms) {
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-            int currentOccupancy = studentsInRoom.size();
-            
-            if (currentOccupancy < room.getCapacity()) {
-                RoomDto roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), currentOccupancy >= room.getCapacity(), new ArrayList<>());
-                roomDtos.add(roomDto);
-            }
-        }
-        
-        return roomDtos;
+        // Served from the in-memory occupancy index, no database round trip
+        return roomOccupancyIndex.getAvailableRooms();
+    }
+
+    public Map<String, Object> verifyOccupancyIndex() {
+        return roomOccupancyIndex.verifyAndRebuild();
     }
 
     public RoomDto getRoomById(Long id) {
         Room room = roomRepository.findById(id).orElse(null);
         if (room != null) {
-            // Get students assigned to this room
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(id);
-            List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-            
-            for (Student student : studentsInRoom) {
-                if (student.getUser() != null) {
-                    UserDisplayDto userDto = new UserDisplayDto(student.getUser().getId(), student.getUser().getName(), student.getUser().getEmail(), student.getUser().getRole().name());
-                    studentSummaryDtos.add(new StudentSummaryDto(student.getId(), userDto));
-                }
-            }
-            
-            boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-            return new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
+            return toRoomDto(room, studentRepository.findStudentsByRoomId(id));
         }
         return null;
     }
@@ -94,6 +107,8 @@ public class RoomService {
         room.setCapacity(roomDto.getCapacity());
         // Occupancy is calculated automatically based on student count vs capacity
         Room savedRoom = roomRepository.save(room);
+        roomOccupancyIndex.putRoom(savedRoom);
+        dataVersions.changed(DataVersions.Aggregate.ROOMS);
         
         return new RoomDto(savedRoom.getId(), savedRoom.getRoomNumber(), savedRoom.getCapacity(), savedRoom.getOccupied(), new ArrayList<>());
     }
@@ -111,125 +126,126 @@ public class RoomService {
             room.setCapacity(roomDto.getCapacity());
             // Occupancy is calculated automatically based on student count vs capacity
             Room updatedRoom = roomRepository.save(room);
+            roomOccupancyIndex.putRoom(updatedRoom);
+            dataVersions.changed(DataVersions.Aggregate.ROOMS);
             
-            // Get students assigned to this room
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(updatedRoom.getId());
-            List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-            
-            for (Student student : studentsInRoom) {
-                if (student.getUser() != null) {
-                    UserDisplayDto userDto = new UserDisplayDto(student.getUser().getId(), student.getUser().getName(), student.getUser().getEmail(), student.getUser().getRole().name());
-                    studentSummaryDtos.add(new StudentSummaryDto(student.getId(), userDto));
-                }
-            }
-            
-            boolean isOccupied = studentSummaryDtos.size() >= updatedRoom.getCapacity();
-            return new RoomDto(updatedRoom.getId(), updatedRoom.getRoomNumber(), updatedRoom.getCapacity(), isOccupied, studentSummaryDtos);
+            return toRoomDto(updatedRoom, studentRepository.findStudentsByRoomId(updatedRoom.getId()));
         }
         return null;
     }
     
     public RoomDto deallocateStudentFromRoom(Long roomId, Long studentId) {
         Room room = roomRepository.findById(roomId).orElse(null);
-        Student student = studentRepository.findById(studentId).orElse(null);
-        
-        if (room != null && student != null && student.getRoom() != null && student.getRoom().getId().equals(roomId)) {
-            // Remove the student from the room
-            student.setRoom(null);
-            studentRepository.save(student);
-            
-            // Update room's occupied status
-            room.updateOccupiedStatus();
-            roomRepository.save(room);
-            
-            // Get updated list of students in room
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-            List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-            
-            for (Student s : studentsInRoom) {
-                if (s.getUser() != null) {
-                    UserDisplayDto userDto = new UserDisplayDto(s.getUser().getId(), s.getUser().getName(), s.getUser().getEmail(), s.getUser().getRole().name());
-                    studentSummaryDtos.add(new StudentSummaryDto(s.getId(), userDto));
-                }
+        if (room == null) {
+            return null;
+        }
+        // Room first, then the student, the order every allocation path takes. The student's room is
+        // read again under both locks, so a move racing this either ends the assignment first (and this
+        // finds the student gone) or waits and moves an unassigned student.
+        Boolean removed = transactionTemplate.execute(status -> {
+            if (roomRepository.lockCapacityById(roomId) == null) {
+                return false;
             }
-            
-            boolean isOccupied = studentSummaryDtos.size() >= room.getCapacity();
-            return new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
+            List<Object[]> locked = studentRepository.lockRoomIdsByIdIn(List.of(studentId));
+            if (locked.isEmpty() || locked.get(0)[1] == null || ((Number) locked.get(0)[1]).longValue() != roomId) {
+                return false;
+            }
+            // Remove the student from the room, keeping the ended assignment in the history
+            assignmentHistoryService.recordEnded(studentId, LocalDateTime.now());
+            jdbcTemplate.update(UNASSIGN, studentId);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.ROOMS);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(removed)) {
+            return null;
         }
-        return null;
+        // After commit, as on the allocation paths
+        roomOccupancyIndex.studentRemoved(roomId);
+        bookingQueueService.bedsFreed(roomId);
+
+        // Get updated list of students in room
+        return toRoomDto(room, studentRepository.findStudentsByRoomId(roomId));
     }
 
     public void deleteRoom(Long id) {
-        Room room = roomRepository.findById(id).orElse(null);
-        if (room != null) {
-            // Find any student assigned to this room and remove the assignment
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(id);
-            for (Student student : studentsInRoom) {
-                student.setRoom(null);
-                studentRepository.save(student);
+        // The room row is locked first, as on the allocation paths, so nobody is placed in the room
+        // between emptying it and deleting it
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (roomRepository.lockCapacityById(id) == null) {
+                return false;
             }
+            // One set-based statement for all occupants, recorded in the assignment history
+            checkoutService.vacateRooms(List.of(id), null);
             roomRepository.deleteById(id);
+            return true;
+        });
+        if (Boolean.TRUE.equals(deleted)) {
+            roomOccupancyIndex.removeRoom(id);
+            dataVersions.changed(DataVersions.Aggregate.ROOMS);
         }
     }
 
     public RoomDto allocateRoomToStudent(Long roomId, Long studentId) {
-        Room room = roomRepository.findById(roomId).orElse(null);
-        Student student = studentRepository.findById(studentId).orElse(null);
+        RoomAllocationService.AllocationResult result = roomAllocationService.allocate(roomId, studentId);
         
-        if (room != null && student != null) {
-            // Check if room has capacity before allocating
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-            if (studentsInRoom.size() < room.getCapacity()) {
-                student.setRoom(room);
-                roomRepository.save(room);
-                studentRepository.save(student);
-                
+        switch (result.getStatus()) {
+            case ROOM_FULL:
+                throw new RuntimeException("Room is at full capacity");
+            case NOT_FOUND:
+                return null;
+            default:
+                bookingQueueService.bedsFreed(result.getPreviousRoomId());
                 // Get updated list of students in room
-                studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-                List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-                
-                for (Student s : studentsInRoom) {
-                    if (s.getUser() != null) {
-                        UserDisplayDto userDto = new UserDisplayDto(s.getUser().getId(), s.getUser().getName(), s.getUser().getEmail(), s.getUser().getRole().name());
-                        studentSummaryDtos.add(new StudentSummaryDto(s.getId(), userDto));
-                    }
-                }
-                
-                boolean isOccupied = studentSummaryDtos.size() >= room.getCapacity();
-                return new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
-            }
+                return getRoomById(roomId);
         }
-        return null;
     }
 
     public RoomDto deallocateRoom(Long roomId) {
         Room room = roomRepository.findById(roomId).orElse(null);
         if (room != null) {
-            // Find any student assigned to this room and remove the assignment
-            List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-            for (Student student : studentsInRoom) {
-                student.setRoom(null);
-            }
-            roomRepository.save(room);
-            // Save all affected students
-            for (Student student : studentsInRoom) {
-                studentRepository.save(student);
+            // Under the room lock, so an allocation racing the vacate either lands before it (and is
+            // vacated too) or waits and sees the empty room
+            Integer vacated = transactionTemplate.execute(status -> {
+                roomRepository.lockCapacityById(roomId);
+                // One set-based statement for all occupants, recorded in the assignment history
+                return checkoutService.vacateRooms(List.of(roomId), null).get(roomId);
+            });
+            // One removal per student vacated, so an allocation committed right after still counts
+            for (int i = 0; i < vacated; i++) {
+                roomOccupancyIndex.studentRemoved(roomId);
             }
+            bookingQueueService.bedsFreed(roomId);
             
             // Get updated list of students in room (should be empty now)
-            studentsInRoom = studentRepository.findStudentsByRoomId(roomId);
-            List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>();
-            
-            for (Student student : studentsInRoom) {
-                if (student.getUser() != null) {
-                    UserDisplayDto userDto = new UserDisplayDto(student.getUser().getId(), student.getUser().getName(), student.getUser().getEmail(), student.getUser().getRole().name());
-                    studentSummaryDtos.add(new StudentSummaryDto(student.getId(), userDto));
-                }
-            }
-            
-            boolean isOccupied = studentSummaryDtos.size() >= room.getCapacity();
-            return new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
+            return toRoomDto(room, studentRepository.findStudentsByRoomId(roomId));
         }
         return null;
     }
+
+    private RoomDto toRoomDto(Room room, List<Student> studentsInRoom) {
+        List<StudentSummaryDto> studentSummaryDtos = new ArrayList<>(studentsInRoom.size());
+        
+        for (Student student : studentsInRoom) {
+            if (student.getUser() != null) {
+                UserDisplayDto userDto = new UserDisplayDto(student.getUser().getId(), student.getUser().getName(), student.getUser().getEmail(), student.getUser().getRole().name());
+                studentSummaryDtos.add(new StudentSummaryDto(student.getId(), userDto));
+            }
+        }
+        
+        boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
+        return new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied, studentSummaryDtos);
+    }
+
+    private List<RoomDto> toRoomDtos(List<Room> rooms, List<Student> assignedStudents) {
+        Map<Long, List<Student>> studentsByRoom = new HashMap<>();
+        for (Student student : assignedStudents) {
+            studentsByRoom.computeIfAbsent(student.getRoom().getId(), k -> new ArrayList<>()).add(student);
+        }
+        
+        List<RoomDto> roomDtos = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            roomDtos.add(toRoomDto(room, studentsByRoom.getOrDefault(room.getId(), Collections.emptyList())));
+        }
+        return roomDtos;
+    }
 }
\ No newline at end of file
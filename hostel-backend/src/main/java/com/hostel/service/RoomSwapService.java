@@ -0,0 +1,203 @@
+package com.hostel.service;
+
+import com.hostel.dto.SwapCycleReport;
+import com.hostel.dto.SwapMoveDto;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Room swaps among open requests for full rooms: a student in room A asking for B, one in B asking
+// for C, ... and one asking for A can all move at once without any room going over capacity.
+// SwapCycleFinder finds the cycles over every open request; an admin then applies one cycle (or any
+// set of requests that nets out per room) in a single transaction that locks rooms, requests and
+// students in the same order as the other approval paths and re-checks that nothing moved meanwhile.
+@Service
+public class RoomSwapService {
+
+    private static final Set<RoomBookingRequest.Status> SWAPPABLE_STATUSES =
+            EnumSet.of(RoomBookingRequest.Status.PENDING, RoomBookingRequest.Status.WAITLISTED);
+    private static final String SWAP_REMARKS = "Room swap";
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomSwapService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public SwapCycleReport findSwapCycles() {
+        List<Object[]> rows = roomBookingRequestRepository.findSwapEdges(SWAPPABLE_STATUSES);
+
+        // Dense indices for the finder
+        Map<Long, Integer> roomIndex = new HashMap<>();
+        Map<Long, Integer> studentIndex = new HashMap<>();
+        int[] from = new int[rows.size()];
+        int[] to = new int[rows.size()];
+        int[] student = new int[rows.size()];
+        for (int e = 0; e < rows.size(); e++) {
+            Object[] row = rows.get(e);
+            student[e] = studentIndex.computeIfAbsent((Long) row[1], k -> studentIndex.size());
+            from[e] = roomIndex.computeIfAbsent((Long) row[3], k -> roomIndex.size());
+            to[e] = roomIndex.computeIfAbsent((Long) row[5], k -> roomIndex.size());
+        }
+
+        long start = System.nanoTime();
+        SwapCycleFinder.Result result = SwapCycleFinder.find(roomIndex.size(), studentIndex.size(), from, to, student);
+        double findMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        List<List<SwapMoveDto>> cycles = new ArrayList<>(result.getCycles());
+        for (int c = 0; c < result.getCycles(); c++) {
+            List<SwapMoveDto> moves = new ArrayList<>();
+            for (int i = result.getCycleStart()[c]; i < result.getCycleStart()[c + 1]; i++) {
+                moves.add(toMove(rows.get(result.getEdges()[i])));
+            }
+            cycles.add(moves);
+        }
+
+        SwapCycleReport report = new SwapCycleReport();
+        report.setRequestsConsidered(rows.size());
+        report.setCycleCount(result.getCycles());
+        report.setTwoCycles(result.getTwoCycles());
+        report.setStudentsInCycles(result.getEdgesInCycles());
+        report.setFindMillis(findMillis);
+        report.setCycles(cycles);
+        return report;
+    }
+
+    // Approves the requests together and moves every student; all or nothing
+    public List<SwapMoveDto> applySwap(List<Long> requestIds) {
+        Set<Long> ids = new LinkedHashSet<>(requestIds);
+        if (ids.size() < 2 || ids.size() != requestIds.size()) {
+            throw new RuntimeException("A swap needs at least two distinct request ids");
+        }
+
+        List<Object[]> rows = roomBookingRequestRepository.findSwapEdgesByIdIn(ids);
+        if (rows.size() != ids.size()) {
+            throw new RuntimeException("Some requests were not found, or their student has no room to swap");
+        }
+        Set<Long> roomIds = new TreeSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (Object[] row : rows) {
+            roomIds.add((Long) row[3]);
+            roomIds.add((Long) row[5]);
+            studentIds.add((Long) row[1]);
+        }
+        if (studentIds.size() != rows.size()) {
+            throw new RuntimeException("A student can only take part in a swap once");
+        }
+
+        List<SwapMoveDto> moves = transactionTemplate.execute(status -> {
+            roomRepository.lockCapacitiesByIdIn(roomIds);
+            Map<Long, Object[]> locked = new HashMap<>();
+            for (Object[] row : roomBookingRequestRepository.lockDecisionRowsByIdIn(ids)) {
+                locked.put(((Number) row[0]).longValue(), row);
+            }
+            Map<Long, Long> currentRooms = new HashMap<>();
+            for (Object[] row : studentRepository.lockRoomIdsByIdIn(studentIds)) {
+                currentRooms.put(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).longValue() : null);
+            }
+
+            // Every room must lose as many students as it gains
+            Map<Long, Integer> balance = new HashMap<>();
+            List<SwapMoveDto> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                SwapMoveDto move = toMove(row);
+                Object[] request = locked.get(move.getRequestId());
+                if (request == null || !isSwappable(String.valueOf(request[3]))) {
+                    throw new RuntimeException("Request " + move.getRequestId() + " is no longer open");
+                }
+                if (!move.getFromRoomId().equals(currentRooms.get(move.getStudentId()))) {
+                    throw new RuntimeException("Student " + move.getStudentId() + " has changed rooms; find the swaps again");
+                }
+                balance.merge(move.getFromRoomId(), -1, Integer::sum);
+                balance.merge(move.getToRoomId(), 1, Integer::sum);
+                result.add(move);
+            }
+            for (Map.Entry<Long, Integer> entry : balance.entrySet()) {
+                if (entry.getValue() != 0) {
+                    throw new RuntimeException("The requests do not form a swap: room " + entry.getKey() + " would change by " + entry.getValue());
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> assignments = new ArrayList<>(result.size());
+            List<Object[]> resolutions = new ArrayList<>(result.size());
+            for (SwapMoveDto move : result) {
+                assignments.add(new Object[]{move.getToRoomId(), now, move.getStudentId()});
+                resolutions.add(new Object[]{RoomBookingRequest.Status.APPROVED.name(), SWAP_REMARKS, now, move.getRequestId()});
+            }
+            namedParameterJdbcTemplate.update(BookingDecisionService.RECORD_HISTORY, new MapSqlParameterSource()
+                    .addValue("studentIds", studentIds)
+                    .addValue("vacatedAt", now));
+            jdbcTemplate.batchUpdate(BookingDecisionService.ASSIGN, assignments);
+            jdbcTemplate.batchUpdate(BookingDecisionService.RESOLVE, resolutions);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.BOOKING_REQUESTS);
+            return result;
+        });
+
+        // Occupancies are unchanged, but approved PENDING requests no longer hold a bed
+        Set<Long> heldRooms = new HashSet<>();
+        for (SwapMoveDto move : moves) {
+            heldRooms.add(move.getToRoomId());
+        }
+        for (Long roomId : heldRooms) {
+            bookingQueueService.bedsFreed(roomId);
+        }
+        System.out.println("Room swap applied: " + moves.size() + " students across " + roomIds.size() + " rooms");
+        return moves;
+    }
+
+    private static boolean isSwappable(String status) {
+        for (RoomBookingRequest.Status swappable : SWAPPABLE_STATUSES) {
+            if (swappable.name().equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SwapMoveDto toMove(Object[] row) {
+        return new SwapMoveDto((Long) row[0], (Long) row[1], (String) row[2], (Long) row[3], (String) row[4],
+                (Long) row[5], (String) row[6]);
+    }
+}
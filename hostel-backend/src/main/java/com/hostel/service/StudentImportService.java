@@ -0,0 +1,357 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.StudentImportProgress;
+import com.hostel.dto.StudentImportRow;
+import com.hostel.repository.StudentRepository;
+import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtPrincipalResolver;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+// Bulk registration of STUDENT accounts from a CSV or JSON intake list (name, email, password).
+// The upload is parsed and checked up front (one query for emails that are already registered),
+// then a background job works through it in chunks: BCrypt hashing in parallel on its own bounded
+// fork-join pool, and the users and their student rows inserted as JDBC batches in one transaction
+// per chunk. Progress is polled by job id; the per-row report is attached once the job finishes.
+@Service
+public class StudentImportService {
+
+    private static final String INSERT_USER = "INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, 'STUDENT')";
+    private static final String INSERT_STUDENT = "INSERT INTO students (user_id) VALUES (?)";
+
+    // A registration racing the import can take an email between the check and the insert; the chunk is then re-checked
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long KEEP_FINISHED_JOBS_MINUTES = 60;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    @Value("${students.import.batch-size:500}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+    // Separate from the login/registration pool, so an intake never fills its queue and turns logins away with 429
+    private final ForkJoinPool hashingPool;
+    // One import runs at a time; further uploads wait their turn
+    private final ExecutorService runner;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public StudentImportService(PlatformTransactionManager transactionManager,
+                                @Value("${students.import.hashing-threads:0}") int hashingThreads) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    public StudentImportProgress startImport(InputStream in, ImportRowReader.Format format) {
+        List<Pending> rows = read(in, format);
+        markRegisteredEmails(rows);
+
+        Job job = new Job(UUID.randomUUID().toString(), rows);
+        evictFinishedJobs();
+        jobs.put(job.id, job);
+        runner.submit(() -> run(job));
+        return job.snapshot();
+    }
+
+    // Null when the job is unknown or finished more than an hour ago
+    public StudentImportProgress getProgress(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    private List<Pending> read(InputStream in, ImportRowReader.Format format) {
+        List<Pending> rows = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (ImportRowReader reader = ImportRowReader.open(in, format, objectMapper, "name", "email", "password")) {
+            ImportRowReader.Record record;
+            while ((record = reader.next()) != null) {
+                Pending pending = new Pending(new StudentImportRow(record.getRow(), record.get("name"), record.get("email")),
+                        record.get("password"));
+                if (record.getError() != null) {
+                    pending.row.setError(record.getError());
+                } else {
+                    validate(pending, seen);
+                }
+                rows.add(pending);
+            }
+        } catch (IOException e) {
+            // Unreadable input ends the list; rows read before it are still imported
+            Pending failed = new Pending(new StudentImportRow(rows.size() + 1, null, null), null);
+            failed.row.setError("Unreadable input: " + e.getMessage());
+            rows.add(failed);
+        }
+        return rows;
+    }
+
+    private void validate(Pending pending, Set<String> seen) {
+        StudentImportRow row = pending.row;
+        if (row.getName() == null) {
+            row.setError("Name is required");
+        } else if (row.getName().length() > 255) {
+            row.setError("Name cannot exceed 255 characters");
+        } else if (row.getEmail() == null || !row.getEmail().contains("@") || row.getEmail().length() > 255) {
+            row.setError("A valid email is required");
+        } else if (pending.password == null) {
+            row.setError("Password is required");
+        } else if (!seen.add(key(row.getEmail()))) {
+            row.setError("Duplicate email in file");
+        }
+    }
+
+    // One set query for the whole upload, so already-registered rows are never hashed
+    private void markRegisteredEmails(List<Pending> rows) {
+        Map<String, Pending> byEmail = new HashMap<>();
+        for (Pending pending : rows) {
+            if (pending.row.getError() == null) {
+                byEmail.put(key(pending.row.getEmail()), pending);
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return;
+        }
+        List<String> emails = byEmail.values().stream().map(pending -> pending.row.getEmail()).toList();
+        for (Object[] existing : userRepository.findIdsByEmailIn(emails)) {
+            Pending pending = byEmail.get(key((String) existing[1]));
+            if (pending != null) {
+                pending.row.setError("Email already exists");
+            }
+        }
+    }
+
+    private void run(Job job) {
+        try {
+            List<Pending> chunk = new ArrayList<>(batchSize);
+            for (Pending pending : job.rows) {
+                if (pending.row.getError() != null) {
+                    continue;
+                }
+                chunk.add(pending);
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk);
+                    job.chunkDone(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk);
+                job.chunkDone(chunk);
+            }
+            job.finish("COMPLETED", null);
+        } catch (RuntimeException e) {
+            System.err.println("Student import " + job.id + " failed: " + e.getMessage());
+            job.abort("Import stopped: " + e.getMessage());
+        }
+        System.out.println("Student import " + job.id + ": " + job.created + " created, " + job.failed + " failed");
+    }
+
+    private void importChunk(List<Pending> chunk) {
+        List<String> hashes = hashingPool.submit(() -> chunk.parallelStream()
+                .map(pending -> passwordEncoder.encode(pending.password))
+                .toList()).join();
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.get(i).hash = hashes.get(i);
+            chunk.get(i).password = null;
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            List<Pending> toInsert = chunk.stream().filter(pending -> pending.row.getError() == null).toList();
+            if (toInsert.isEmpty()) {
+                return;
+            }
+            try {
+                Map<String, Long[]> ids = transactionTemplate.execute(status -> insertChunk(toInsert));
+                dataVersions.changed(DataVersions.Aggregate.STUDENTS, DataVersions.Aggregate.USERS);
+                // Ids are written back only once the chunk has committed
+                for (Pending pending : toInsert) {
+                    Long[] userAndStudent = ids.get(key(pending.row.getEmail()));
+                    pending.row.setUserId(userAndStudent[0]);
+                    pending.row.setStudentId(userAndStudent[1]);
+                    // Drops a cached "no such account" for the email
+                    principalResolver.invalidate(pending.row.getEmail());
+                }
+                return;
+            } catch (DuplicateKeyException e) {
+                System.out.println("Student import chunk hit a concurrently registered email, retrying (attempt " + attempt + ")");
+                markRegisteredEmails(toInsert);
+            }
+        }
+        for (Pending pending : chunk) {
+            if (pending.row.getUserId() == null && pending.row.getError() == null) {
+                pending.row.setError("Could not import: emails kept changing concurrently");
+            }
+        }
+    }
+
+    // Returns [userId, studentId] by email key
+    private Map<String, Long[]> insertChunk(List<Pending> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_USER, chunk, chunk.size(), (ps, pending) -> {
+            ps.setString(1, pending.row.getName());
+            ps.setString(2, pending.row.getEmail());
+            ps.setString(3, pending.hash);
+        });
+
+        Map<String, Long> userIds = new HashMap<>();
+        List<String> emails = chunk.stream().map(pending -> pending.row.getEmail()).toList();
+        for (Object[] row : userRepository.findIdsByEmailIn(emails)) {
+            userIds.put(key((String) row[1]), (Long) row[0]);
+        }
+        List<Long> newUserIds = chunk.stream().map(pending -> userIds.get(key(pending.row.getEmail()))).toList();
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, newUserIds, newUserIds.size(), (ps, userId) -> ps.setLong(1, userId));
+
+        Map<Long, Long> studentIds = new HashMap<>();
+        for (Object[] row : studentRepository.findIdsByUserIdIn(newUserIds)) {
+            studentIds.put((Long) row[1], (Long) row[0]);
+        }
+        Map<String, Long[]> ids = new HashMap<>();
+        for (Map.Entry<String, Long> entry : userIds.entrySet()) {
+            ids.put(entry.getKey(), new Long[] {entry.getValue(), studentIds.get(entry.getValue())});
+        }
+        return ids;
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(KEEP_FINISHED_JOBS_MINUTES);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    // Emails are unique case-insensitively under MySQL's default collation
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Pending {
+        private final StudentImportRow row;
+        private String password;
+        private String hash;
+
+        Pending(StudentImportRow row, String password) {
+            this.row = row;
+            this.password = password;
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final List<Pending> rows;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private String status = "RUNNING";
+        private int processed;
+        private int created;
+        private int failed;
+        private String message;
+        private volatile LocalDateTime finishedAt;
+
+        Job(String id, List<Pending> rows) {
+            this.id = id;
+            this.rows = rows;
+            for (Pending pending : rows) {
+                if (pending.row.getError() != null) {
+                    processed++;
+                    failed++;
+                }
+            }
+        }
+
+        synchronized void chunkDone(List<Pending> chunk) {
+            for (Pending pending : chunk) {
+                processed++;
+                if (pending.row.getUserId() != null) {
+                    created++;
+                } else {
+                    failed++;
+                }
+            }
+        }
+
+        synchronized void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        // Chunks already committed stay; every row not yet imported is reported as failed
+        synchronized void abort(String message) {
+            processed = rows.size();
+            failed = 0;
+            for (Pending pending : rows) {
+                if (pending.row.getUserId() == null) {
+                    failed++;
+                    if (pending.row.getError() == null) {
+                        pending.row.setError(message);
+                    }
+                }
+            }
+            finish("FAILED", message);
+        }
+
+        synchronized StudentImportProgress snapshot() {
+            StudentImportProgress progress = new StudentImportProgress();
+            progress.setJobId(id);
+            progress.setStatus(status);
+            progress.setTotal(rows.size());
+            progress.setProcessed(processed);
+            progress.setCreated(created);
+            progress.setFailed(failed);
+            progress.setStartedAt(startedAt);
+            progress.setFinishedAt(finishedAt);
+            progress.setMessage(message);
+            if (finishedAt != null) {
+                progress.setRows(rows.stream().map(pending -> pending.row).toList());
+            }
+            return progress;
+        }
+    }
+}
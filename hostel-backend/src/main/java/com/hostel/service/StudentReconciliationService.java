@@ -0,0 +1,85 @@
+package com.hostel.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Creates the missing student row for every STUDENT account that has none (accounts imported or
+// created outside registration). Runs at startup from DataInitializer and then on a fixed delay;
+// login creates a single account's row on the spot through reconcile(userId), so a student never has
+// to wait for the next run.
+@Service
+public class StudentReconciliationService {
+
+    // Anti-join, set-based: up to a chunk of STUDENT accounts with no student row get one in a single
+    // statement. MySQL runs an INSERT ... SELECT on its own target table through a temporary table.
+    private static final String INSERT_MISSING_CHUNK =
+            "INSERT INTO students (user_id) SELECT u.id FROM users u LEFT JOIN students s ON s.user_id = u.id "
+                    + "WHERE u.role = 'STUDENT' AND s.id IS NULL ORDER BY u.id LIMIT ?";
+
+    // A chunk loses to a concurrent login creating one of its rows at most this often in a row
+    private static final int MAX_CHUNK_CONFLICTS = 5;
+
+    // Single account, for login; students.user_id is unique, so a concurrent insert fails instead of duplicating
+    private static final String INSERT_MISSING_FOR_USER =
+            "INSERT INTO students (user_id) SELECT id FROM users WHERE id = ? AND role = 'STUDENT' "
+                    + "AND NOT EXISTS (SELECT 1 FROM students WHERE user_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${students.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${students.reconcile.interval-ms:600000}",
+            initialDelayString = "${students.reconcile.interval-ms:600000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    public int reconcile() {
+        int created = 0;
+        int conflicts = 0;
+        while (true) {
+            int rows;
+            try {
+                rows = jdbcTemplate.update(INSERT_MISSING_CHUNK, batchSize);
+            } catch (DuplicateKeyException e) {
+                // A login created one of the chunk's rows first; the retry no longer selects it
+                if (++conflicts > MAX_CHUNK_CONFLICTS) {
+                    throw e;
+                }
+                continue;
+            }
+            conflicts = 0;
+            created += rows;
+            if (rows < batchSize) {
+                break;
+            }
+        }
+        if (created > 0) {
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+        }
+        System.out.println("Student reconciliation created " + created + " missing student records");
+        return created;
+    }
+
+    // True if this call created the account's student row
+    public boolean reconcile(Long userId) {
+        try {
+            if (jdbcTemplate.update(INSERT_MISSING_FOR_USER, userId, userId) > 0) {
+                dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+                return true;
+            }
+        } catch (DuplicateKeyException e) {
+            // Created by a concurrent request or the scheduled run
+        }
+        return false;
+    }
+}
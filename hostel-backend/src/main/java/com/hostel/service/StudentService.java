@@ -1,5 +1,6 @@
 package com.hostel.service;
 
+import com.hostel.dto.CursorPage;
 import com.hostel.dto.RoomDto;
 import com.hostel.dto.StudentDto;
 import com.hostel.dto.UserDisplayDto;
@@ -10,10 +11,15 @@ import com.hostel.entity.User;
 import com.hostel.repository.StudentRepository;
 import com.hostel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class StudentService {
@@ -24,27 +30,42 @@ public class StudentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private StudentReconciliationService studentReconciliationService;
+
     public List<StudentDto> getAllStudents() {
-        List<Student> students = studentRepository.findAll();
-        List<StudentDto> studentDtos = new ArrayList<>();
+        // One roster query with per-room occupancy instead of loading each student's room-mates
+        List<Object[]> roster = studentRepository.findRoster();
+        List<StudentDto> studentDtos = new ArrayList<>(roster.size());
+        for (Object[] row : roster) {
+            studentDtos.add(toStudentDto(row));
+        }
+        return studentDtos;
+    }
+
+    public CursorPage<StudentDto> getStudentsPage(Long roomId, Long cursor, Integer size, String direction) {
+        Sort.Direction sortDirection = KeysetPaging.direction(direction, Sort.Direction.ASC);
+        Slice<Student> slice = studentRepository.findSlice(roomId,
+                KeysetPaging.afterId(cursor, sortDirection),
+                KeysetPaging.beforeId(cursor, sortDirection),
+                KeysetPaging.firstSlice(size, sortDirection));
         
-        for (Student student : students) {
-            User user = student.getUser();
-            if (user == null) continue;
-            UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-            RoomDto roomDto = null;
-            if (student.getRoom() != null) {
-                Room room = student.getRoom();
-                // We need to know the actual occupancy of the room
-                List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
-            }
-            
-            studentDtos.add(new StudentDto(student.getId(), userDto, roomDto));
+        Map<Long, Long> occupancyByRoom = occupancyOf(slice.getContent());
+        List<StudentDto> studentDtos = new ArrayList<>(slice.getNumberOfElements());
+        for (Student student : slice.getContent()) {
+            studentDtos.add(toStudentDto(student, occupancyByRoom));
         }
         
-        return studentDtos;
+        return KeysetPaging.toPage(slice, studentDtos, Student::getId);
     }
 
     public List<StudentDto> getStudentsWithoutRooms() {
@@ -63,52 +84,20 @@ public class StudentService {
     }
     
     public List<StudentDto> getAllStudentsWithUsers() {
-        // Ensure all users with STUDENT role have corresponding student records
-        List<User> studentUsers = userRepository.findByRole(Role.STUDENT);
-        List<StudentDto> studentDtos = new ArrayList<>();
-        
-        for (User user : studentUsers) {
-            Student student = studentRepository.findByUserId(user.getId());
-            if (student == null) {
-                // Create student record if it doesn't exist
-                student = new Student();
-                student.setUser(user);
-                student = studentRepository.save(student);
-            }
-            
-            // Create DTO with proper user and room data
-            UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-            RoomDto roomDto = null;
-            if (student.getRoom() != null) {
-                Room room = student.getRoom();
-                List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
+        // Read-only: missing student rows are created on login and by StudentReconciliationService
+        List<Object[]> roster = studentRepository.findRoster();
+        List<StudentDto> studentDtos = new ArrayList<>(roster.size());
+        for (Object[] row : roster) {
+            if (row[4] == Role.STUDENT) {
+                studentDtos.add(toStudentDto(row));
             }
-            
-            StudentDto studentDto = new StudentDto(student.getId(), userDto, roomDto);
-            studentDtos.add(studentDto);
         }
-        
         return studentDtos;
     }
 
     public StudentDto getStudentById(Long id) {
         Student student = studentRepository.findById(id).orElse(null);
-        if (student != null) {
-            User user = student.getUser();
-            UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-            RoomDto roomDto = null;
-            if (student.getRoom() != null) {
-                Room room = student.getRoom();
-                List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
-            }
-            
-            return new StudentDto(student.getId(), userDto, roomDto);
-        }
-        return null;
+        return student != null ? toStudentDto(student) : null;
     }
 
     public Student getStudentByUserId(Long userId) {
@@ -116,32 +105,21 @@ public class StudentService {
     }
 
     public StudentDto getStudentDtoByUserId(Long userId) {
+        // Read-only: a missing row is created on login or by StudentReconciliationService, not here
+        Student student = studentRepository.findByUserId(userId);
+        return student != null ? toStudentDto(student) : null;
+    }
+
+    // A STUDENT account without its student row (imported, or created outside registration) gets it at
+    // login rather than waiting for the scheduled reconciliation; null for other accounts
+    public Student getOrCreateStudentByUserId(Long userId) {
         Student student = studentRepository.findByUserId(userId);
         if (student == null) {
-            // If no student exists for this user, create one
-            User user = userRepository.findById(userId).orElse(null);
-            if (user != null && user.getRole() == Role.STUDENT) {
-                student = new Student();
-                student.setUser(user);
-                student = studentRepository.save(student);
-            }
-        }
-        
-        if (student != null) {
-            // Create DTO with proper user and room data
-            User user = student.getUser();
-            UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-            RoomDto roomDto = null;
-            if (student.getRoom() != null) {
-                Room room = student.getRoom();
-                List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
-            }
-            
-            return new StudentDto(student.getId(), userDto, roomDto);
+            // Looked up again even if a concurrent request created the row first
+            studentReconciliationService.reconcile(userId);
+            student = studentRepository.findByUserId(userId);
         }
-        return null;
+        return student;
     }
 
     public StudentDto createStudent(Long userId) {
@@ -151,21 +129,13 @@ public class StudentService {
             Student existingStudent = studentRepository.findByUserId(userId);
             if (existingStudent != null) {
                 // Return existing student as DTO if already exists
-                UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-                RoomDto roomDto = null;
-                if (existingStudent.getRoom() != null) {
-                    Room room = existingStudent.getRoom();
-                    List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                    boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                    roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
-                }
-                            
-                return new StudentDto(existingStudent.getId(), userDto, roomDto);
+                return toStudentDto(existingStudent);
             }
             
             Student student = new Student();
             student.setUser(user);
             Student savedStudent = studentRepository.save(student);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
             
             // Create and return DTO
             UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
@@ -181,23 +151,64 @@ public class StudentService {
         if (student != null && user != null) {
             student.setUser(user);
             Student updatedStudent = studentRepository.save(student);
-            
-            // Create and return DTO
-            UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-            RoomDto roomDto = null;
-            if (updatedStudent.getRoom() != null) {
-                Room room = updatedStudent.getRoom();
-                List<Student> studentsInRoom = studentRepository.findStudentsByRoomId(room.getId());
-                boolean isOccupied = studentsInRoom.size() >= room.getCapacity();
-                roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
-            }
-            
-            return new StudentDto(updatedStudent.getId(), userDto, roomDto);
+            dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+            return toStudentDto(updatedStudent);
         }
         return null;
     }
 
     public void deleteStudent(Long id) {
+        Student student = studentRepository.findById(id).orElse(null);
+        if (student != null && student.getRoom() != null) {
+            assignmentHistoryService.recordEnded(student, LocalDateTime.now());
+            roomOccupancyIndex.studentRemoved(student.getRoom().getId());
+        }
         studentRepository.deleteById(id);
+        dataVersions.changed(DataVersions.Aggregate.STUDENTS);
+    }
+
+    private StudentDto toStudentDto(Student student) {
+        return toStudentDto(student, occupancyOf(List.of(student)));
+    }
+
+    // Shared DTO builder: occupancyByRoom holds the current head-count of every room the students are in
+    private StudentDto toStudentDto(Student student, Map<Long, Long> occupancyByRoom) {
+        User user = student.getUser();
+        UserDisplayDto userDto = new UserDisplayDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
+        RoomDto roomDto = null;
+        if (student.getRoom() != null) {
+            Room room = student.getRoom();
+            boolean isOccupied = occupancyByRoom.getOrDefault(room.getId(), 0L) >= room.getCapacity();
+            roomDto = new RoomDto(room.getId(), room.getRoomNumber(), room.getCapacity(), isOccupied);
+        }
+        return new StudentDto(student.getId(), userDto, roomDto);
+    }
+
+    private StudentDto toStudentDto(Object[] rosterRow) {
+        UserDisplayDto userDto = new UserDisplayDto((Long) rosterRow[1], (String) rosterRow[2], (String) rosterRow[3],
+                ((Role) rosterRow[4]).name());
+        RoomDto roomDto = null;
+        if (rosterRow[5] != null) {
+            Integer capacity = (Integer) rosterRow[7];
+            Long occupancy = rosterRow[8] != null ? (Long) rosterRow[8] : 0L;
+            roomDto = new RoomDto((Long) rosterRow[5], (String) rosterRow[6], capacity, occupancy >= capacity);
+        }
+        return new StudentDto((Long) rosterRow[0], userDto, roomDto);
+    }
+
+    // One grouped count for all rooms the given students are in
+    private Map<Long, Long> occupancyOf(List<Student> students) {
+        List<Long> roomIds = students.stream()
+                .filter(student -> student.getRoom() != null)
+                .map(student -> student.getRoom().getId())
+                .distinct()
+                .toList();
+        Map<Long, Long> occupancyByRoom = new HashMap<>();
+        if (!roomIds.isEmpty()) {
+            for (Object[] row : studentRepository.countByRoomIdIn(roomIds)) {
+                occupancyByRoom.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return occupancyByRoom;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package com.hostel.service;
+
+import java.util.Arrays;
+
+// Exchange cycles among open room requests, computed purely in memory. Rooms are nodes and every
+// request is an edge from the student's current room to the requested room. A cycle of requests moves
+// one student out of and one student into each room on it, so applying it keeps every occupancy as it
+// is. Cycles never share a request or a student. 2-cycles (plain swaps) are paired first: a counting sort
+// on the unordered room pair puts A -> B next to B -> A. The remaining edges are walked once with a path
+// stack, cutting a cycle off whenever the walk returns to a room on the path and dropping rooms with no
+// usable edge left. Only int arrays are used and every room and edge is looked at a bounded number of
+// times, so finding is linear in rooms plus requests.
+public final class SwapCycleFinder {
+
+    private SwapCycleFinder() {}
+
+    public static class Result {
+        // Edges of cycle c are edges[cycleStart[c] .. cycleStart[c + 1]), each moving into the next one's room
+        private final int[] edges;
+        private final int[] cycleStart;
+        private final int twoCycles;
+
+        Result(int[] edges, int[] cycleStart, int twoCycles) {
+            this.edges = edges;
+            this.cycleStart = cycleStart;
+            this.twoCycles = twoCycles;
+        }
+
+        public int getCycles() { return cycleStart.length - 1; }
+        public int getTwoCycles() { return twoCycles; }
+        public int getEdgesInCycles() { return edges.length; }
+        public int[] getEdges() { return edges; }
+        public int[] getCycleStart() { return cycleStart; }
+    }
+
+    // Edge e moves student[e] from room from[e] to room to[e]; rooms and students are dense indices.
+    // Edges should come oldest request first: within a room pair and along a room's edges, earlier ones are tried first.
+    public static Result find(int rooms, int students, int[] from, int[] to, int[] student) {
+        int edgeCount = from.length;
+        boolean[] usedEdge = new boolean[edgeCount];
+        boolean[] usedStudent = new boolean[students];
+        IntList cycleEdges = new IntList(Math.max(16, edgeCount / 4));
+        IntList cycleStart = new IntList(16);
+        cycleStart.add(0);
+
+        // Pass 1: sorted by unordered room pair (two stable counting sorts), A -> B and B -> A sit side by side
+        int[] low = new int[edgeCount];
+        int[] high = new int[edgeCount];
+        int[] edges = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            low[e] = Math.min(from[e], to[e]);
+            high[e] = Math.max(from[e], to[e]);
+            edges[e] = e;
+        }
+        int[] byPair = countingSort(countingSort(edges, high, rooms), low, rooms);
+        int[] forward = new int[edgeCount];
+        int[] backward = new int[edgeCount];
+        for (int groupStart = 0, groupEnd; groupStart < edgeCount; groupStart = groupEnd) {
+            int first = byPair[groupStart];
+            groupEnd = groupStart + 1;
+            while (groupEnd < edgeCount && low[byPair[groupEnd]] == low[first] && high[byPair[groupEnd]] == high[first]) {
+                groupEnd++;
+            }
+            if (low[first] == high[first]) {
+                continue;
+            }
+            // Oldest first in each direction, skipping students already swapped elsewhere
+            int forwardCount = 0;
+            int backwardCount = 0;
+            for (int i = groupStart; i < groupEnd; i++) {
+                int e = byPair[i];
+                if (from[e] == low[e]) {
+                    forward[forwardCount++] = e;
+                } else {
+                    backward[backwardCount++] = e;
+                }
+            }
+            int f = 0;
+            int b = 0;
+            while (f < forwardCount && b < backwardCount) {
+                if (usedStudent[student[forward[f]]]) {
+                    f++;
+                } else if (usedStudent[student[backward[b]]]) {
+                    b++;
+                } else {
+                    take(forward[f++], usedEdge, usedStudent, student, cycleEdges);
+                    take(backward[b++], usedEdge, usedStudent, student, cycleEdges);
+                    cycleStart.add(cycleEdges.size());
+                }
+            }
+        }
+        int twoCycles = cycleStart.size() - 1;
+
+        // Outgoing edges per room, in input order
+        int[] outStart = new int[rooms + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            outStart[from[e] + 1]++;
+        }
+        for (int r = 0; r < rooms; r++) {
+            outStart[r + 1] += outStart[r];
+        }
+        int[] outEdges = countingSort(edges, from, rooms);
+
+        // Pass 2: next[r] is the next edge of room r to try; each edge is tried once
+        int[] next = Arrays.copyOf(outStart, rooms);
+        int[] pathPosition = new int[rooms];
+        Arrays.fill(pathPosition, -1);
+        boolean[] dead = new boolean[rooms];
+        int[] pathRooms = new int[rooms + 1];
+        int[] pathEdges = new int[rooms];
+
+        for (int start = 0; start < rooms; start++) {
+            if (dead[start]) {
+                continue;
+            }
+            int depth = 0;
+            pathRooms[0] = start;
+            pathPosition[start] = 0;
+            while (depth >= 0) {
+                int room = pathRooms[depth];
+                int edge = -1;
+                while (next[room] < outStart[room + 1]) {
+                    int candidate = outEdges[next[room]++];
+                    if (!usedEdge[candidate] && !usedStudent[student[candidate]] && from[candidate] != to[candidate]
+                            && !dead[to[candidate]]) {
+                        edge = candidate;
+                        break;
+                    }
+                }
+                if (edge < 0) {
+                    // No way out of this room; it can never be on a cycle again
+                    dead[room] = true;
+                    pathPosition[room] = -1;
+                    depth--;
+                    continue;
+                }
+
+                int target = to[edge];
+                int position = pathPosition[target];
+                if (position < 0) {
+                    pathEdges[depth] = edge;
+                    pathRooms[++depth] = target;
+                    pathPosition[target] = depth;
+                    continue;
+                }
+
+                // Back on the path: the edges from that room onwards plus this one close a cycle
+                for (int p = position; p < depth; p++) {
+                    take(pathEdges[p], usedEdge, usedStudent, student, cycleEdges);
+                }
+                take(edge, usedEdge, usedStudent, student, cycleEdges);
+                cycleStart.add(cycleEdges.size());
+                for (int p = position + 1; p <= depth; p++) {
+                    pathPosition[pathRooms[p]] = -1;
+                }
+                depth = position;
+            }
+        }
+
+        return new Result(cycleEdges.toArray(), cycleStart.toArray(), twoCycles);
+    }
+
+    private static void take(int edge, boolean[] usedEdge, boolean[] usedStudent, int[] student, IntList cycleEdges) {
+        usedEdge[edge] = true;
+        usedStudent[student[edge]] = true;
+        cycleEdges.add(edge);
+    }
+
+    // Stable: items with the same key keep their order
+    private static int[] countingSort(int[] items, int[] key, int buckets) {
+        int[] start = new int[buckets + 1];
+        for (int item : items) {
+            start[key[item] + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] += start[b];
+        }
+        int[] sorted = new int[items.length];
+        for (int item : items) {
+            sorted[start[key[item]]++] = item;
+        }
+        return sorted;
+    }
+
+    private static class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.hostel.service;
+
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.User;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtPrincipalResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class UserService {
+
+    private static final int MAX_ATTEMPTS = 5;
+    // Nothing cascades from students to its requests, so they are deleted ahead of the account
+    private static final String DELETE_BOOKING_REQUESTS = "DELETE FROM room_booking_requests WHERE student_id = ?";
+    private static final String DELETE_MAINTENANCE_REQUESTS = "DELETE FROM maintenance_requests WHERE student_id = ?";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomBookingRequestRepository roomBookingRequestRepository;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private BookingQueueService bookingQueueService;
+
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Deletes the account; a student's row and requests go with it. False if there is no such user.
+    public boolean deleteUser(Long id) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user == null) {
+            return false;
+        }
+        Deletion deletion = null;
+        for (int attempt = 1; deletion == null; attempt++) {
+            if (attempt > MAX_ATTEMPTS) {
+                throw new RuntimeException("Student kept moving while the account was being deleted, please retry");
+            }
+            deletion = transactionTemplate.execute(status -> {
+                Deletion result = tryDelete(id);
+                if (result == null) {
+                    status.setRollbackOnly();
+                }
+                return result;
+            });
+        }
+
+        // Outstanding tokens for this account stop working on the next request
+        principalResolver.invalidate(user.getEmail());
+        if (deletion.roomId != null) {
+            roomOccupancyIndex.studentRemoved(deletion.roomId);
+            bookingQueueService.bedsFreed(deletion.roomId);
+        }
+        for (Long roomId : deletion.heldRoomIds) {
+            bookingQueueService.bedsFreed(roomId);
+        }
+        return true;
+    }
+
+    // Null if the student moved between reading its room and locking it; the caller retries
+    private Deletion tryDelete(Long userId) {
+        List<Object[]> placement = studentRepository.findPlacementByUserId(userId);
+        Deletion deletion = new Deletion();
+        if (!placement.isEmpty()) {
+            Long studentId = (Long) placement.get(0)[0];
+            Long roomId = (Long) placement.get(0)[1];
+            // Room first, then the student, the order every allocation path takes
+            if (roomId != null) {
+                roomRepository.lockCapacityById(roomId);
+            }
+            // Rooms where the student's pending requests hold a bed; the requests go before the student
+            // row is locked, and a retry rolls the deletes back
+            deletion.heldRoomIds = roomBookingRequestRepository.findRoomIdsByStudentIdAndStatus(studentId,
+                    RoomBookingRequest.Status.PENDING);
+            jdbcTemplate.update(DELETE_BOOKING_REQUESTS, studentId);
+            jdbcTemplate.update(DELETE_MAINTENANCE_REQUESTS, studentId);
+            List<Object[]> locked = studentRepository.lockRoomIdsByIdIn(List.of(studentId));
+            Long lockedRoomId = !locked.isEmpty() && locked.get(0)[1] != null ? ((Number) locked.get(0)[1]).longValue() : null;
+            if (!Objects.equals(roomId, lockedRoomId)) {
+                return null;
+            }
+            deletion.roomId = roomId;
+            // The assignment ends with the account; history keeps it after the student row is gone
+            assignmentHistoryService.recordEnded(studentId, LocalDateTime.now());
+        }
+        userRepository.deleteById(userId);
+        // A student's booking and maintenance requests went with it
+        dataVersions.changed(DataVersions.Aggregate.USERS, DataVersions.Aggregate.STUDENTS,
+                DataVersions.Aggregate.BOOKING_REQUESTS, DataVersions.Aggregate.MAINTENANCE_REQUESTS);
+        return deletion;
+    }
+
+    private static final class Deletion {
+        private Long roomId;
+        private List<Long> heldRoomIds = List.of();
+    }
+}
@@ -0,0 +1,152 @@
+package com.hostel;
+
+import com.hostel.entity.MaintenanceRequest;
+import com.hostel.entity.Role;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import com.hostel.entity.User;
+import com.hostel.repository.MaintenanceRequestRepository;
+import com.hostel.repository.RoomBookingRequestRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtUtil;
+import com.hostel.service.RoomOccupancyIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rows and tokens for tests that run against the test profile's H2 database. Names are unique per
+// call, so tests sharing a cached context do not collide.
+public class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime());
+
+    private final RoomRepository roomRepository;
+    private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
+    private final RoomBookingRequestRepository roomBookingRequestRepository;
+    private final MaintenanceRequestRepository maintenanceRequestRepository;
+    private final RoomOccupancyIndex roomOccupancyIndex;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    public TestData(ApplicationContext context) {
+        this.roomRepository = context.getBean(RoomRepository.class);
+        this.studentRepository = context.getBean(StudentRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.roomBookingRequestRepository = context.getBean(RoomBookingRequestRepository.class);
+        this.maintenanceRequestRepository = context.getBean(MaintenanceRequestRepository.class);
+        this.roomOccupancyIndex = context.getBean(RoomOccupancyIndex.class);
+        this.jwtUtil = context.getBean(JwtUtil.class);
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+    }
+
+    public Room room(int capacity) {
+        Room room = roomRepository.save(Room.builder()
+                .roomNumber("T-" + SEQUENCE.incrementAndGet())
+                .capacity(capacity)
+                .occupied(false)
+                .build());
+        roomOccupancyIndex.putRoom(room);
+        return room;
+    }
+
+    // A student account with its student row, placed in the room when one is given (and counted in the occupancy index)
+    public Student student(Room room) {
+        User user = studentAccount();
+        Student student = Student.builder().user(user).room(room).build();
+        if (room != null) {
+            student.setAssignedAt(LocalDateTime.now());
+        }
+        Student saved = studentRepository.save(student);
+        if (room != null) {
+            roomOccupancyIndex.studentAdded(room.getId());
+        }
+        return saved;
+    }
+
+    // A STUDENT account with no student row yet, as imported or created outside registration
+    public User studentAccount() {
+        return userRepository.save(User.builder()
+                .name("Test Student " + SEQUENCE.incrementAndGet())
+                .email("student" + SEQUENCE.incrementAndGet() + "@test.hostel")
+                .password("x")
+                .role(Role.STUDENT)
+                .build());
+    }
+
+    public User admin() {
+        return userRepository.save(User.builder()
+                .name("Test Admin " + SEQUENCE.incrementAndGet())
+                .email("admin" + SEQUENCE.incrementAndGet() + "@test.hostel")
+                .password("x")
+                .role(Role.ADMIN)
+                .build());
+    }
+
+    public RoomBookingRequest bookingRequest(Student student, Room room, RoomBookingRequest.Status status) {
+        return roomBookingRequestRepository.save(RoomBookingRequest.builder()
+                .student(student)
+                .room(room)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    public MaintenanceRequest maintenanceRequest(Student student, Room room) {
+        return maintenanceRequestRepository.save(MaintenanceRequest.builder()
+                .student(student)
+                .room(room)
+                .description("Leaking tap")
+                .status(MaintenanceRequest.Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Rooms with students, booking and maintenance requests: every list endpoint has rows to map
+    public void population(int rooms) {
+        for (int i = 0; i < rooms; i++) {
+            Room room = room(3);
+            Student first = student(room);
+            Student second = student(room);
+            Student waiting = student(null);
+            bookingRequest(waiting, room, RoomBookingRequest.Status.PENDING);
+            bookingRequest(first, room, RoomBookingRequest.Status.REJECTED);
+            maintenanceRequest(first, room);
+            maintenanceRequest(second, room);
+        }
+        roomOccupancyIndex.rebuild();
+    }
+
+    public String token(User user) {
+        return jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId(), null);
+    }
+
+    public String token(Student student) {
+        User user = student.getUser();
+        return jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId(), student.getId());
+    }
+
+    // Requests recorded so far in sql.statements.per.request for the endpoint, and their statements in total:
+    // {count, statements}. The metric sees statements run while the body is written, the headers do not.
+    public long[] statementMetric(String method, String uriPattern) {
+        return summary("sql.statements.per.request", method, uriPattern);
+    }
+
+    // The same for sql.statements.authentication.per.request, which records requests whose principal lookup ran statements
+    public long[] authenticationStatementMetric(String method, String uriPattern) {
+        return summary("sql.statements.authentication.per.request", method, uriPattern);
+    }
+
+    private long[] summary(String name, String method, String uriPattern) {
+        DistributionSummary summary = meterRegistry.find(name)
+                .tags("method", method, "uri", uriPattern)
+                .summary();
+        return summary == null ? new long[]{0, 0} : new long[]{summary.count(), (long) summary.totalAmount()};
+    }
+}
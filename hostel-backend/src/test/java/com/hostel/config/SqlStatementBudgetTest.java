@@ -0,0 +1,97 @@
+package com.hostel.config;
+
+import com.hostel.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every list endpoint with a configured budget stays within it, counted through the metric so that
+// statements run while the body is serialized are included
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private SqlStatementBudgetFilter budgetFilter;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData data;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(context);
+        data.population(5);
+    }
+
+    // Each endpoint is measured with a new account, so the principal cache misses and the lookup runs
+    // in the same request; it is counted apart and the endpoint still fits its budget, cold or warm
+    @Test
+    void listEndpointsStayWithinTheirBudgets() throws Exception {
+        assertWithinBudget("/api/admin/rooms", "/api/admin/rooms?unpaged=true", data.token(data.admin()));
+        assertWithinBudget("/api/admin/students", "/api/admin/students?unpaged=true", data.token(data.admin()));
+        assertWithinBudget("/api/admin/room-booking-requests", "/api/admin/room-booking-requests?unpaged=true", data.token(data.admin()));
+        assertWithinBudget("/api/admin/maintenance-requests", "/api/admin/maintenance-requests?unpaged=true", data.token(data.admin()));
+        assertWithinBudget("/api/admin/users", "/api/admin/users?unpaged=true", data.token(data.admin()));
+        assertWithinBudget("/api/student/rooms", "/api/student/rooms", data.token(data.student(null)));
+    }
+
+    @Test
+    void jdbcTemplateStatementsAndBatchesAreCounted() {
+        counter.begin();
+        jdbcTemplate.queryForList("SELECT id FROM rooms");
+        jdbcTemplate.batchUpdate("UPDATE rooms SET occupied = occupied WHERE id = ?",
+                List.of(new Object[]{1L}, new Object[]{2L}, new Object[]{3L}));
+        SqlStatementCounter.Stats stats = counter.end();
+
+        // The batch is one prepared statement however many rows it carries
+        assertEquals(2, stats.getCount());
+        assertEquals(0, stats.getRepeatedCount());
+    }
+
+    private void assertWithinBudget(String pattern, String url, String token) throws Exception {
+        long[] authenticationBefore = data.authenticationStatementMetric("GET", pattern);
+        long cold = statements(pattern, url, token);
+        long[] authenticationAfter = data.authenticationStatementMetric("GET", pattern);
+        assertEquals(1, authenticationAfter[0] - authenticationBefore[0], pattern + " looked up its principal");
+        long warm = statements(pattern, url, token);
+        assertEquals(authenticationAfter[0], data.authenticationStatementMetric("GET", pattern)[0],
+                pattern + " principal came from the cache");
+
+        assertEquals(cold, warm, "GET " + pattern + " count depends on the principal cache");
+        int budget = budgetFilter.budgetFor("GET " + pattern);
+        assertTrue(cold <= budget, "GET " + pattern + " ran " + cold + " statements, budget " + budget);
+    }
+
+    private long statements(String pattern, String url, String token) throws Exception {
+        long[] before = data.statementMetric("GET", pattern);
+        mockMvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        long[] after = data.statementMetric("GET", pattern);
+        assertEquals(1, after[0] - before[0], pattern + " recorded once");
+        return after[1] - before[1];
+    }
+}
@@ -0,0 +1,77 @@
+package com.hostel.controller;
+
+import com.hostel.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The list endpoints run a fixed number of statements however many rows they return: loading more
+// rooms, students and requests must not add a statement per row
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListStatementCountTest {
+
+    // url -> uri pattern the statement metric is tagged with
+    private static final Map<String, String> ADMIN_LISTS = new LinkedHashMap<>();
+
+    static {
+        ADMIN_LISTS.put("/api/admin/rooms?unpaged=true", "/api/admin/rooms");
+        ADMIN_LISTS.put("/api/admin/rooms?size=50", "/api/admin/rooms");
+        ADMIN_LISTS.put("/api/admin/students?unpaged=true", "/api/admin/students");
+        ADMIN_LISTS.put("/api/admin/students?size=50", "/api/admin/students");
+        ADMIN_LISTS.put("/api/admin/room-booking-requests?unpaged=true", "/api/admin/room-booking-requests");
+        ADMIN_LISTS.put("/api/admin/room-booking-requests?size=50", "/api/admin/room-booking-requests");
+        ADMIN_LISTS.put("/api/admin/maintenance-requests?unpaged=true", "/api/admin/maintenance-requests");
+        ADMIN_LISTS.put("/api/admin/maintenance-requests?size=50", "/api/admin/maintenance-requests");
+        ADMIN_LISTS.put("/api/admin/users?unpaged=true", "/api/admin/users");
+        ADMIN_LISTS.put("/api/admin/users?size=50", "/api/admin/users");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void listStatementCountsDoNotGrowWithRows() throws Exception {
+        TestData data = new TestData(context);
+        String adminToken = data.token(data.admin());
+        String studentToken = data.token(data.student(null));
+
+        data.population(2);
+        Map<String, Long> few = new LinkedHashMap<>();
+        for (Map.Entry<String, String> list : ADMIN_LISTS.entrySet()) {
+            few.put(list.getKey(), statements(data, list.getKey(), list.getValue(), adminToken));
+        }
+        few.put("/api/student/rooms", statements(data, "/api/student/rooms", "/api/student/rooms", studentToken));
+
+        data.population(10);
+        for (Map.Entry<String, String> list : ADMIN_LISTS.entrySet()) {
+            assertEquals(few.get(list.getKey()), statements(data, list.getKey(), list.getValue(), adminToken), list.getKey());
+        }
+        assertEquals(few.get("/api/student/rooms"), statements(data, "/api/student/rooms", "/api/student/rooms", studentToken));
+    }
+
+    // Statements of one request, from the sql.statements.per.request metric so that lazy loads while
+    // the body is written are included
+    private long statements(TestData data, String url, String pattern, String token) throws Exception {
+        long[] before = data.statementMetric("GET", pattern);
+        mockMvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        long[] after = data.statementMetric("GET", pattern);
+        assertEquals(1, after[0] - before[0], url + " recorded once");
+        return after[1] - before[1];
+    }
+}
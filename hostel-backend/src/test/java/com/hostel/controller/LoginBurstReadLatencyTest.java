@@ -0,0 +1,150 @@
+package com.hostel.controller;
+
+import com.hostel.TestData;
+import com.hostel.entity.Role;
+import com.hostel.entity.User;
+import com.hostel.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Read p99 over real HTTP, at rest and while more BCrypt logins arrive than Tomcat has threads. Logins
+// wait on the hashing pool rather than on request threads, so reads keep their tail latency; the
+// remaining slowdown is the CPU the hashing thread takes. Prints both percentiles.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=8",
+        "auth.hashing.threads=1",
+        "auth.hashing.queue-capacity=16"
+})
+@ActiveProfiles("test")
+class LoginBurstReadLatencyTest {
+
+    private static final int READERS = 4;
+    private static final int READS_PER_READER = 250;
+    // Twice Tomcat's threads: were logins hashed on request threads, reads would queue behind them
+    private static final int LOGIN_THREADS = 16;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void readP99HoldsDuringALoginBurst() throws Exception {
+        TestData data = new TestData(context);
+        String token = data.token(data.student(data.room(2)));
+        User account = userRepository.save(User.builder()
+                .name("Burst Student")
+                .email("burst" + System.nanoTime() + "@test.hostel")
+                .password(passwordEncoder.encode("burst123"))
+                .role(Role.STUDENT)
+                .build());
+        String login = "{\"email\":\"" + account.getEmail() + "\",\"password\":\"burst123\"}";
+
+        readP99(token, 100);
+        long baseline = readP99(token, READS_PER_READER);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger logins = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService burst = Executors.newFixedThreadPool(LOGIN_THREADS);
+        long underBurst;
+        try {
+            for (int i = 0; i < LOGIN_THREADS; i++) {
+                burst.submit(() -> {
+                    while (!stop.get()) {
+                        int status = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(login))
+                                        .build(), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                        (status == 200 ? logins : rejected).incrementAndGet();
+                        if (status == 429) {
+                            Thread.sleep(5);
+                        }
+                    }
+                    return null;
+                });
+            }
+            // Let the hashing pool fill before measuring
+            Thread.sleep(500);
+            underBurst = readP99(token, READS_PER_READER);
+        } finally {
+            stop.set(true);
+            burst.shutdown();
+            burst.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("Read p99: %.1f ms at rest, %.1f ms during the login burst (%d logins, %d turned away with 429)%n",
+                baseline / 1e6, underBurst / 1e6, logins.get(), rejected.get());
+        assertTrue(logins.get() > 0, "no login completed during the burst");
+        // Generous for a shared CI box, far below the seconds reads would wait behind hashing request threads
+        assertTrue(underBurst <= baseline * 3 + TimeUnit.MILLISECONDS.toNanos(50),
+                "read p99 went from " + baseline / 1_000_000 + " ms to " + underBurst / 1_000_000 + " ms");
+    }
+
+    // p99 in nanoseconds of READERS threads each making the given number of reads
+    private long readP99(String token, int readsPerReader) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                futures.add(readers.submit(() -> {
+                    List<Long> latencies = new ArrayList<>(readsPerReader);
+                    HttpRequest read = HttpRequest.newBuilder(uri("/api/student/rooms"))
+                            .header("Authorization", "Bearer " + token)
+                            .build();
+                    for (int r = 0; r < readsPerReader; r++) {
+                        long start = System.nanoTime();
+                        int status = client.send(read, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies.add(System.nanoTime() - start);
+                        assertEquals(200, status);
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                all.addAll(future.get(120, TimeUnit.SECONDS));
+            }
+            Collections.sort(all);
+            return all.get((int) Math.ceil(all.size() * 0.99) - 1);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
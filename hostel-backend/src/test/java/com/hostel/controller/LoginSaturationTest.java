@@ -0,0 +1,84 @@
+package com.hostel.controller;
+
+import com.hostel.TestData;
+import com.hostel.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// With every hashing thread busy and the queue full, logins are turned away with 429 and Retry-After
+// straight away, and reads keep being served on the request threads
+@SpringBootTest(properties = {
+        "auth.hashing.threads=2",
+        "auth.hashing.queue-capacity=2",
+        "auth.hashing.retry-after-seconds=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginSaturationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Test
+    void saturatedHashingPoolAnswers429AndReadsStillWork() throws Exception {
+        TestData data = new TestData(context);
+        String studentToken = data.token(data.student(null));
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> blockers = new ArrayList<>();
+        try {
+            // Two running, two queued: the pool is full
+            for (int i = 0; i < 4; i++) {
+                blockers.add(passwordHashingExecutor.submit(() -> {
+                    try {
+                        return release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }));
+            }
+
+            long start = System.currentTimeMillis();
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"john@example.com\",\"password\":\"student123\"}"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+            mockMvc.perform(get("/api/student/rooms").header("Authorization", "Bearer " + studentToken))
+                    .andExpect(status().isOk());
+            long elapsed = System.currentTimeMillis() - start;
+
+            // Neither request waited for a hashing thread
+            assertTrue(elapsed < 5000, "login rejection and read took " + elapsed + " ms");
+        } finally {
+            release.countDown();
+            CompletableFuture.allOf(blockers.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.hostel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.TestData;
+import com.hostel.dto.BookingTicketDto;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A booking is accepted with a ticket and placed by the booking queue: the first request for a
+// one-bed room holds the bed, later ones wait in arrival order and move up when the bed frees.
+// Admins cannot hand out a bed by moving a request to PENDING themselves, and a double-submit races
+// into one open request (uk_booking_pending) with the other submits turned away.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RoomBookingRequestControllerTest {
+
+    private static final long PLACEMENT_TIMEOUT_MS = 10_000;
+    private static final int SUBMITTERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestsAreQueuedWaitlistedInOrderAndPromoted() throws Exception {
+        TestData data = new TestData(context);
+        String adminToken = data.token(data.admin());
+        Room room = data.room(1);
+        Student first = data.student(null);
+        Student second = data.student(null);
+        Student third = data.student(null);
+
+        BookingTicketDto firstTicket = submit(first, room);
+        BookingTicketDto secondTicket = submit(second, room);
+        BookingTicketDto thirdTicket = submit(third, room);
+        assertEquals(RoomBookingRequest.Status.QUEUED, firstTicket.getStatus());
+        assertEquals(room.getId(), firstTicket.getRoomId());
+        assertNotNull(firstTicket.getPosition());
+
+        awaitStatus(first, firstTicket, RoomBookingRequest.Status.PENDING);
+        assertEquals(1L, awaitStatus(second, secondTicket, RoomBookingRequest.Status.WAITLISTED).getPosition());
+        assertEquals(2L, awaitStatus(third, thirdTicket, RoomBookingRequest.Status.WAITLISTED).getPosition());
+
+        // Would put a second request on the room's only bed
+        mockMvc.perform(put("/api/admin/room-booking-requests/" + thirdTicket.getTicketId())
+                        .param("status", "PENDING")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+        assertEquals(RoomBookingRequest.Status.WAITLISTED, ticket(third, thirdTicket).getStatus());
+
+        mockMvc.perform(put("/api/admin/room-booking-requests/" + firstTicket.getTicketId())
+                        .param("status", "REJECTED")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        awaitStatus(second, secondTicket, RoomBookingRequest.Status.PENDING);
+        assertEquals(1L, awaitStatus(third, thirdTicket, RoomBookingRequest.Status.WAITLISTED).getPosition());
+    }
+
+    @Test
+    void concurrentDoubleSubmitsLeaveOneOpenRequest() throws Exception {
+        TestData data = new TestData(context);
+        Room room = data.room(2);
+        Student student = data.student(null);
+        String token = data.token(student);
+
+        ExecutorService pool = Executors.newFixedThreadPool(SUBMITTERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < SUBMITTERS; i++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    return mockMvc.perform(post("/api/student/room-booking-requests")
+                                    .param("studentId", student.getId().toString())
+                                    .param("roomId", room.getId().toString())
+                                    .header("Authorization", "Bearer " + token))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            go.countDown();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, Collections.frequency(statuses, 202), statuses.toString());
+        assertEquals(SUBMITTERS - 1, Collections.frequency(statuses, 400), statuses.toString());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM room_booking_requests WHERE student_id = ? AND room_id = ? AND status IN ('QUEUED', 'PENDING', 'WAITLISTED')",
+                Integer.class, student.getId(), room.getId()));
+    }
+
+    private BookingTicketDto submit(Student student, Room room) throws Exception {
+        String body = mockMvc.perform(post("/api/student/room-booking-requests")
+                        .param("studentId", student.getId().toString())
+                        .param("roomId", room.getId().toString())
+                        .header("Authorization", "Bearer " + new TestData(context).token(student)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, BookingTicketDto.class);
+    }
+
+    private BookingTicketDto ticket(Student student, BookingTicketDto ticket) throws Exception {
+        String body = mockMvc.perform(get("/api/student/room-booking-requests/" + ticket.getTicketId() + "/ticket")
+                        .header("Authorization", "Bearer " + new TestData(context).token(student)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, BookingTicketDto.class);
+    }
+
+    // The allocator thread places and promotes requests after the call that caused it has returned
+    private BookingTicketDto awaitStatus(Student student, BookingTicketDto ticket, RoomBookingRequest.Status expected) throws Exception {
+        long deadline = System.currentTimeMillis() + PLACEMENT_TIMEOUT_MS;
+        while (true) {
+            BookingTicketDto current = ticket(student, ticket);
+            if (current.getStatus() == expected) {
+                return current;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("request " + ticket.getTicketId() + " is " + current.getStatus() + ", expected " + expected);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.hostel.controller;
+
+import com.hostel.dto.AuthRequest;
+import com.hostel.dto.AuthResponse;
+import com.hostel.entity.Role;
+import com.hostel.entity.User;
+import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtUtil;
+import com.hostel.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The profile is read-only: a STUDENT account without a student row gets 404 and nothing is written.
+// Its first login creates the row instead of waiting for the scheduled reconciliation, and concurrent
+// first logins create a single row.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentProfileTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void profileDoesNotCreateTheRowAndFirstLoginsCreateOne() throws Exception {
+        User account = userRepository.save(User.builder()
+                .name("Rowless Student")
+                .email("rowless" + System.nanoTime() + "@test.hostel")
+                .password(passwordEncoder.encode("student123"))
+                .role(Role.STUDENT)
+                .build());
+        String rowlessToken = jwtUtil.generateToken(account.getEmail(), account.getRole().name(), account.getId(), null);
+
+        mockMvc.perform(get("/api/student/profile").header("Authorization", "Bearer " + rowlessToken))
+                .andExpect(status().isNotFound());
+        assertEquals(0, studentRows(account));
+
+        AuthRequest login = new AuthRequest();
+        login.setEmail(account.getEmail());
+        login.setPassword("student123");
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<AuthResponse> responses = new ArrayList<>();
+        try {
+            List<Future<AuthResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    return authService.authenticateUser(login);
+                }));
+            }
+            go.countDown();
+            for (Future<AuthResponse> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, studentRows(account));
+        Set<Long> studentIds = new HashSet<>();
+        for (AuthResponse response : responses) {
+            studentIds.add(response.getStudentId());
+        }
+        assertEquals(1, studentIds.size());
+        mockMvc.perform(get("/api/student/profile").header("Authorization", "Bearer " + responses.get(0).getToken()))
+                .andExpect(status().isOk());
+    }
+
+    private int studentRows(User account) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE user_id = ?", Integer.class, account.getId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.hostel.controller;
+
+import com.hostel.TestData;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The user list answers 304 while nothing changed, and deleting a student invalidates every list
+// that showed the student or its requests
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    private static final String[] LISTS = {
+            "/api/admin/users?unpaged=true",
+            "/api/admin/students?unpaged=true",
+            "/api/admin/room-booking-requests?unpaged=true",
+            "/api/admin/maintenance-requests?unpaged=true"
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void deletingAStudentInvalidatesTheListsShowingIt() throws Exception {
+        TestData data = new TestData(context);
+        String adminToken = data.token(data.admin());
+        Room room = data.room(2);
+        Student student = data.student(room);
+        data.bookingRequest(student, data.room(2), RoomBookingRequest.Status.REJECTED);
+        data.maintenanceRequest(student, room);
+
+        String[] etags = new String[LISTS.length];
+        for (int i = 0; i < LISTS.length; i++) {
+            etags[i] = mockMvc.perform(get(LISTS[i]).header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etags[i], LISTS[i]);
+            mockMvc.perform(get(LISTS[i]).header("Authorization", "Bearer " + adminToken)
+                            .header(HttpHeaders.IF_NONE_MATCH, etags[i]))
+                    .andExpect(status().isNotModified());
+        }
+
+        mockMvc.perform(delete("/api/admin/users/" + student.getUser().getId()).header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        for (int i = 0; i < LISTS.length; i++) {
+            mockMvc.perform(get(LISTS[i]).header("Authorization", "Bearer " + adminToken)
+                            .header(HttpHeaders.IF_NONE_MATCH, etags[i]))
+                    .andExpect(status().isOk());
+        }
+    }
+}
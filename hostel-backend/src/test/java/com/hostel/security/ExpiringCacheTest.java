@@ -0,0 +1,53 @@
+package com.hostel.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpiringCacheTest {
+
+    @Test
+    void fullCacheDropsTheLeastRecentlyUsedEntry() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(60_000, 3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        // "a" is the oldest entry but was just used, so "b" goes
+        cache.get("a");
+        cache.put("d", 4);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(4, cache.get("d"));
+    }
+
+    @Test
+    void hotEntriesSurviveChurn() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(1_000_000 + i, i);
+            // Ten entries read between every new one stay cached however many others pass through
+            cache.get(i % 10);
+            if (i < 10) {
+                cache.put(i, i);
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, cache.get(i));
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void entriesExpireAfterTheirTimeToLive() throws InterruptedException {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(20, 10);
+        cache.put("a", 1);
+        Thread.sleep(50);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.hostel.security;
+
+import com.hostel.dto.UserDto;
+import com.hostel.entity.User;
+import com.hostel.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A token for an email with no account caches the miss; registering that email must not leave the
+// new account locked out until the entry expires
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtPrincipalResolverTest {
+
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void registeringAnEmailReplacesItsCachedMiss() {
+        String email = "returning" + System.nanoTime() + "@test.hostel";
+        assertNull(principalResolver.resolve(jwtUtil.verify(jwtUtil.generateToken(email, "STUDENT", -1L, null))));
+
+        UserDto registration = new UserDto();
+        registration.setName("Returning Student");
+        registration.setEmail(email);
+        registration.setPassword("student123");
+        registration.setRole("STUDENT");
+        User user = authService.registerUser(registration);
+
+        AuthenticatedUser principal = principalResolver.resolve(
+                jwtUtil.verify(jwtUtil.generateToken(email, "STUDENT", user.getId(), null)));
+        assertNotNull(principal);
+        assertEquals(user.getId(), principal.getUserId());
+    }
+}
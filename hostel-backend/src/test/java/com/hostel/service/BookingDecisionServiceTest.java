@@ -0,0 +1,87 @@
+package com.hostel.service;
+
+import com.hostel.TestData;
+import com.hostel.dto.BookingDecisionDto;
+import com.hostel.dto.BookingDecisionReport;
+import com.hostel.dto.BookingDecisionResult;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Batch decisions never approve more students into a room than it has beds, and move a student at
+// most once however many of their requests are approved together
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingDecisionServiceTest {
+
+    @Autowired
+    private BookingDecisionService bookingDecisionService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approvingMoreRequestsThanBedsRejectsTheRestAsRoomFull() {
+        TestData data = new TestData(context);
+        Room room = data.room(2);
+        data.student(room);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RoomBookingRequest request = data.bookingRequest(data.student(null), room, RoomBookingRequest.Status.PENDING);
+            decisions.add(new BookingDecisionDto(request.getId(), RoomBookingRequest.Status.APPROVED, null));
+        }
+
+        BookingDecisionReport report = bookingDecisionService.decide(decisions);
+
+        assertEquals(1, report.getApproved());
+        assertEquals(2, report.getRoomFull());
+        assertEquals(2, occupants(room));
+        for (BookingDecisionResult item : report.getItems()) {
+            String status = item.getOutcome() == BookingDecisionResult.Outcome.APPROVED ? "APPROVED" : "REJECTED";
+            assertEquals(status, requestStatus(item.getId()), "request " + item.getId());
+        }
+    }
+
+    @Test
+    void aStudentApprovedIntoTwoRoomsIsMovedOnce() {
+        TestData data = new TestData(context);
+        Room first = data.room(2);
+        Room second = data.room(2);
+        Student student = data.student(null);
+        RoomBookingRequest toFirst = data.bookingRequest(student, first, RoomBookingRequest.Status.PENDING);
+        RoomBookingRequest toSecond = data.bookingRequest(student, second, RoomBookingRequest.Status.PENDING);
+
+        BookingDecisionReport report = bookingDecisionService.decide(List.of(
+                new BookingDecisionDto(toFirst.getId(), RoomBookingRequest.Status.APPROVED, null),
+                new BookingDecisionDto(toSecond.getId(), RoomBookingRequest.Status.APPROVED, null)));
+
+        assertEquals(1, report.getApproved());
+        assertEquals(1, report.getRejected());
+        // Rooms are decided in id order, so the first room's request wins
+        assertEquals(first.getId(), jdbcTemplate.queryForObject("SELECT room_id FROM students WHERE id = ?", Long.class, student.getId()));
+        assertEquals("APPROVED", requestStatus(toFirst.getId()));
+        assertEquals("REJECTED", requestStatus(toSecond.getId()));
+    }
+
+    private int occupants(Room room) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE room_id = ?", Integer.class, room.getId());
+    }
+
+    private String requestStatus(Long requestId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM room_booking_requests WHERE id = ?", String.class, requestId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.hostel.service;
+
+import com.hostel.TestData;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// PENDING requests age from when they became PENDING, waitlisted ones from creation
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestExpiryServiceTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private RequestExpiryService requestExpiryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pendingAgeIsMeasuredFromPromotion() {
+        TestData data = new TestData(context);
+        Room room = data.room(3);
+        Timestamp old = Timestamp.valueOf(LocalDateTime.now().minusDays(60));
+        Timestamp recent = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+
+        // Waited 59 days on the waitlist, promoted yesterday
+        Long promoted = request(data, room, RoomBookingRequest.Status.PENDING, old, recent);
+        // PENDING for 60 days
+        Long stalePending = request(data, room, RoomBookingRequest.Status.PENDING, old, old);
+        // PENDING since before pending_since was recorded
+        Long legacyPending = request(data, room, RoomBookingRequest.Status.PENDING, old, null);
+        Long staleWaitlisted = request(data, room, RoomBookingRequest.Status.WAITLISTED, old, null);
+        Long freshWaitlisted = request(data, room, RoomBookingRequest.Status.WAITLISTED, recent, null);
+
+        requestExpiryService.expireBookingRequests();
+
+        assertEquals("PENDING", status(promoted));
+        assertEquals("CANCELLED", status(stalePending));
+        assertEquals("CANCELLED", status(legacyPending));
+        assertEquals("CANCELLED", status(staleWaitlisted));
+        assertEquals("WAITLISTED", status(freshWaitlisted));
+        assertEquals("Expired: no decision within 30 days", jdbcTemplate.queryForObject(
+                "SELECT admin_remarks FROM room_booking_requests WHERE id = ?", String.class, stalePending));
+    }
+
+    private Long request(TestData data, Room room, RoomBookingRequest.Status status, Timestamp createdAt, Timestamp pendingSince) {
+        Long id = data.bookingRequest(data.student(null), room, status).getId();
+        jdbcTemplate.update("UPDATE room_booking_requests SET created_at = ?, pending_since = ? WHERE id = ?",
+                createdAt, pendingSince, id);
+        return id;
+    }
+
+    private String status(Long requestId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM room_booking_requests WHERE id = ?", String.class, requestId);
+    }
+}
@@ -0,0 +1,295 @@
+package com.hostel.service;
+
+import com.hostel.entity.CheckoutRun;
+import com.hostel.entity.Role;
+import com.hostel.entity.Room;
+import com.hostel.entity.Student;
+import com.hostel.entity.User;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.StudentRepository;
+import com.hostel.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many threads allocating at once: a room never takes more students than its capacity, and a student
+// moved to several rooms at once leaves each room exactly once. The stress test prints its throughput.
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomAllocationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int STRESS_ROOMS = 25;
+    private static final int STRESS_CAPACITY = 4;
+    // A few beds stay free, so most allocations move a placed student between contended rooms
+    private static final int STRESS_STUDENTS = 90;
+    private static final int STRESS_ALLOCATIONS = 3_000;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentAllocationsNeverOverbookARoom() throws Exception {
+        Room room = room(3);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            students.add(student());
+        }
+
+        List<RoomAllocationService.AllocationResult> results = runConcurrently(students.size(),
+                i -> roomAllocationService.allocate(room.getId(), students.get(i).getId()));
+
+        long allocated = results.stream().filter(r -> r.getStatus() == RoomAllocationService.Status.ALLOCATED).count();
+        long full = results.stream().filter(r -> r.getStatus() == RoomAllocationService.Status.ROOM_FULL).count();
+        assertEquals(3, allocated);
+        assertEquals(students.size() - 3, full);
+        assertEquals(3, studentRepository.countByRoomId(room.getId()));
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void thousandsOfAllocationsIntoFewSmallRoomsNeverOverbook() throws Exception {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < STRESS_ROOMS; i++) {
+            rooms.add(room(STRESS_CAPACITY));
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STRESS_STUDENTS; i++) {
+            students.add(student());
+        }
+        Random random = new Random(42);
+        int[] targets = new int[STRESS_ALLOCATIONS];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = random.nextInt(STRESS_ROOMS);
+        }
+
+        long started = System.nanoTime();
+        List<RoomAllocationService.AllocationResult> results = runConcurrently(STRESS_ALLOCATIONS,
+                i -> roomAllocationService.allocate(rooms.get(targets[i]).getId(), students.get(i % STRESS_STUDENTS).getId()));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long allocated = results.stream().filter(r -> r.getStatus() == RoomAllocationService.Status.ALLOCATED).count();
+        long full = results.stream().filter(r -> r.getStatus() == RoomAllocationService.Status.ROOM_FULL).count();
+        System.out.printf("Allocation stress: %d allocations (%d placed or moved, %d room full) into %d rooms on %d threads "
+                        + "in %.2f s, %.0f allocations/s%n",
+                STRESS_ALLOCATIONS, allocated, full, STRESS_ROOMS, THREADS, seconds, STRESS_ALLOCATIONS / seconds);
+
+        long placed = 0;
+        for (Room room : rooms) {
+            long occupants = studentRepository.countByRoomId(room.getId());
+            assertTrue(occupants <= STRESS_CAPACITY, "room " + room.getId() + " holds " + occupants);
+            placed += occupants;
+        }
+        // Every placement either still stands or was ended by a later move, which left one history row
+        String roomIds = rooms.stream().map(room -> String.valueOf(room.getId())).collect(Collectors.joining(","));
+        Long ended = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM room_assignment_history WHERE room_id IN (" + roomIds + ")", Long.class);
+        assertEquals(allocated, placed + ended);
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void concurrentMovesOfOneStudentLeaveEachRoomOnce() throws Exception {
+        Room start = room(1);
+        Student student = student();
+        assertEquals(RoomAllocationService.Status.ALLOCATED, roomAllocationService.allocate(start.getId(), student.getId()).getStatus());
+        List<Room> targets = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            targets.add(room(1));
+        }
+
+        List<RoomAllocationService.AllocationResult> results = runConcurrently(targets.size(),
+                i -> roomAllocationService.allocate(targets.get(i).getId(), student.getId()));
+
+        // Every move saw the room the previous move left the student in
+        List<Long> previousRooms = new ArrayList<>();
+        for (RoomAllocationService.AllocationResult result : results) {
+            if (result.getStatus() == RoomAllocationService.Status.ALLOCATED) {
+                previousRooms.add(result.getPreviousRoomId());
+            }
+        }
+        assertEquals(THREADS, previousRooms.size());
+        assertEquals(THREADS, new HashSet<>(previousRooms).size());
+
+        List<Long> vacatedRooms = jdbcTemplate.queryForList(
+                "SELECT room_id FROM room_assignment_history WHERE student_id = ?", Long.class, student.getId());
+        assertEquals(THREADS, vacatedRooms.size());
+        assertEquals(THREADS, new HashSet<>(vacatedRooms).size());
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void vacatingARoomWhileStudentsAreAllocatedKeepsTheIndexExact() throws Exception {
+        Room room = room(THREADS * 2);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            students.add(student());
+        }
+        for (int i = 0; i < THREADS; i++) {
+            roomAllocationService.allocate(room.getId(), students.get(i).getId());
+        }
+
+        // Task 0 empties the room while the others allocate into it
+        runConcurrently(THREADS + 1, i -> {
+            if (i == 0) {
+                roomService.deallocateRoom(room.getId());
+                return null;
+            }
+            return roomAllocationService.allocate(room.getId(), students.get(THREADS + i - 1).getId());
+        });
+
+        // Every allocation fits, so each student was placed once; those not in the room now were vacated once
+        long left = students.size() - studentRepository.countByRoomId(room.getId());
+        Long history = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM room_assignment_history WHERE room_id = ?", Long.class, room.getId());
+        assertEquals(left, history);
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void checkoutRunningWhileStudentsAreAllocatedKeepsTheIndexExact() throws Exception {
+        List<Room> rooms = new ArrayList<>();
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Room room = room(4);
+            rooms.add(room);
+            roomAllocationService.allocate(room.getId(), student().getId());
+            students.add(student());
+        }
+
+        // Task 0 starts the checkout while the others allocate into the rooms it is emptying
+        CheckoutRun[] run = new CheckoutRun[1];
+        runConcurrently(THREADS + 1, i -> {
+            if (i == 0) {
+                run[0] = checkoutService.startCheckout();
+                return null;
+            }
+            return roomAllocationService.allocate(rooms.get(i - 1).getId(), students.get(i - 1).getId());
+        });
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (checkoutService.getRun(run[0].getId()).getStatus() == CheckoutRun.Status.RUNNING
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(CheckoutRun.Status.COMPLETED, checkoutService.getRun(run[0].getId()).getStatus());
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void deallocatingStudentsWhileTheyMoveEndsEachAssignmentOnce() throws Exception {
+        Room start = room(THREADS);
+        Room target = room(THREADS);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Student student = student();
+            roomAllocationService.allocate(start.getId(), student.getId());
+            students.add(student);
+        }
+
+        // Each student is taken out of its room and moved to the other one at the same time
+        runConcurrently(THREADS * 2, i -> {
+            Student student = students.get(i / 2);
+            if (i % 2 == 0) {
+                roomService.deallocateStudentFromRoom(start.getId(), student.getId());
+                return null;
+            }
+            return roomAllocationService.allocate(target.getId(), student.getId());
+        });
+
+        // Whichever came first ended the assignment in the start room; the other did not end it again
+        for (Student student : students) {
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM room_assignment_history WHERE student_id = ? AND room_id = ?",
+                    Long.class, student.getId(), start.getId()));
+        }
+        assertEquals(0, studentRepository.countByRoomId(start.getId()));
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    private interface Task {
+        RoomAllocationService.AllocationResult run(int index);
+    }
+
+    private List<RoomAllocationService.AllocationResult> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<RoomAllocationService.AllocationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                Callable<RoomAllocationService.AllocationResult> call = () -> {
+                    go.await();
+                    return task.run(index);
+                };
+                futures.add(pool.submit(call));
+            }
+            go.countDown();
+            List<RoomAllocationService.AllocationResult> results = new ArrayList<>();
+            for (Future<RoomAllocationService.AllocationResult> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Room room(int capacity) {
+        Room room = roomRepository.save(Room.builder()
+                .roomNumber("T-" + System.nanoTime())
+                .capacity(capacity)
+                .occupied(false)
+                .build());
+        roomOccupancyIndex.putRoom(room);
+        return room;
+    }
+
+    private Student student() {
+        User user = userRepository.save(User.builder()
+                .name("Stress Student")
+                .email("stress" + System.nanoTime() + "@test.hostel")
+                .password("x")
+                .role(Role.STUDENT)
+                .build());
+        return studentRepository.save(Student.builder().user(user).build());
+    }
+}
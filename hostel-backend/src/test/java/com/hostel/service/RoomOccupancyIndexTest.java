@@ -0,0 +1,71 @@
+package com.hostel.service;
+
+import com.hostel.dto.RoomAvailabilityDto;
+import com.hostel.entity.Room;
+import com.hostel.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Changes committed while a rebuild is loading are not in what it loads; they are replayed onto the
+// loaded table instead of being lost with the table it replaces
+class RoomOccupancyIndexTest {
+
+    private final RoomRepository roomRepository = mock(RoomRepository.class);
+    private final RoomOccupancyIndex index = new RoomOccupancyIndex(mock(PlatformTransactionManager.class));
+
+    RoomOccupancyIndexTest() {
+        ReflectionTestUtils.setField(index, "roomRepository", roomRepository);
+    }
+
+    @Test
+    void changesDuringALoadSurviveTheSwap() {
+        when(roomRepository.findRoomOccupancies()).thenReturn(rows(new Object[]{1L, "101", 2, 1}));
+        index.rebuild();
+
+        when(roomRepository.findRoomOccupancies()).thenAnswer(invocation -> {
+            // Committed after the load read the counts
+            index.studentAdded(1L);
+            index.putRoom(Room.builder().id(2L).roomNumber("102").capacity(3).occupied(false).build());
+            index.studentAdded(2L);
+            return rows(new Object[]{1L, "101", 2, 1});
+        });
+        index.rebuild();
+
+        List<RoomAvailabilityDto> rooms = index.snapshot();
+        assertEquals(2, rooms.size());
+        assertEquals(2, rooms.get(0).getOccupancy());
+        assertEquals(2L, rooms.get(1).getRoomId());
+        assertEquals(1, rooms.get(1).getOccupancy());
+        assertEquals(0, index.getAvailableRooms().stream().filter(r -> r.getId() == 1L).count());
+    }
+
+    @Test
+    void roomsStaySortedAcrossAddsAndRemoves() {
+        when(roomRepository.findRoomOccupancies()).thenReturn(rows(new Object[]{2L, "102", 2, 0}, new Object[]{5L, "105", 2, 0}));
+        index.rebuild();
+
+        index.putRoom(Room.builder().id(3L).roomNumber("103").capacity(2).occupied(false).build());
+        index.putRoom(Room.builder().id(1L).roomNumber("101").capacity(2).occupied(false).build());
+        index.removeRoom(5L);
+        index.studentAdded(2L);
+        // Resizing keeps the head count
+        index.putRoom(Room.builder().id(2L).roomNumber("102").capacity(4).occupied(false).build());
+
+        List<RoomAvailabilityDto> rooms = index.snapshot();
+        assertEquals(List.of(1L, 2L, 3L), rooms.stream().map(RoomAvailabilityDto::getRoomId).toList());
+        assertEquals(1, rooms.get(1).getOccupancy());
+        assertEquals(4, rooms.get(1).getCapacity());
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,135 @@
+package com.hostel.service;
+
+import com.hostel.TestData;
+import com.hostel.dto.SwapCycleReport;
+import com.hostel.dto.SwapMoveDto;
+import com.hostel.entity.Room;
+import com.hostel.entity.RoomBookingRequest;
+import com.hostel.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Three students in three full rooms, each asking for the next one's room: the cycle is found and
+// moves everyone at once. A swap is refused, with nobody moved and the requests left open, when a
+// student changed rooms since the cycle was found or when the requests do not net out per room.
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomSwapServiceTest {
+
+    @Autowired
+    private RoomSwapService roomSwapService;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aThreeStudentCycleIsFoundAndMovesEveryone() {
+        Cycle cycle = new Cycle(new TestData(context));
+
+        List<Long> found = findCycle(cycle.requestIds);
+        assertNotNull(found, "no cycle found for requests " + cycle.requestIds);
+        assertEquals(Set.copyOf(cycle.requestIds), Set.copyOf(found));
+
+        List<SwapMoveDto> moves = roomSwapService.applySwap(found);
+
+        assertEquals(3, moves.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(cycle.rooms.get((i + 1) % 3).getId(), roomOf(cycle.students.get(i)));
+            assertEquals("APPROVED", requestStatus(cycle.requestIds.get(i)));
+        }
+    }
+
+    @Test
+    void aSwapIsAbortedWhenAStudentHasMovedSince() {
+        TestData data = new TestData(context);
+        Cycle cycle = new Cycle(data);
+        Room elsewhere = data.room(1);
+        assertEquals(RoomAllocationService.Status.ALLOCATED,
+                roomAllocationService.allocate(elsewhere.getId(), cycle.students.get(1).getId()).getStatus());
+
+        // The moved student no longer leaves room B, so the cycle is stale and nothing is applied
+        assertThrows(RuntimeException.class, () -> roomSwapService.applySwap(cycle.requestIds));
+
+        assertEquals(cycle.rooms.get(0).getId(), roomOf(cycle.students.get(0)));
+        assertEquals(elsewhere.getId(), roomOf(cycle.students.get(1)));
+        assertEquals(cycle.rooms.get(2).getId(), roomOf(cycle.students.get(2)));
+        for (Long requestId : cycle.requestIds) {
+            assertEquals("WAITLISTED", requestStatus(requestId));
+        }
+    }
+
+    @Test
+    void requestsThatDoNotNetOutPerRoomAreRefused() {
+        Cycle cycle = new Cycle(new TestData(context));
+        // Without the third request room B would gain a student and room A would lose one
+        List<Long> open = cycle.requestIds.subList(0, 2);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> roomSwapService.applySwap(open));
+
+        assertTrue(error.getMessage().contains("do not form a swap"), error.getMessage());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(cycle.rooms.get(i).getId(), roomOf(cycle.students.get(i)));
+            assertEquals("WAITLISTED", requestStatus(cycle.requestIds.get(i)));
+        }
+    }
+
+    // The found cycle made of exactly these requests, or null
+    private List<Long> findCycle(List<Long> requestIds) {
+        SwapCycleReport report = roomSwapService.findSwapCycles();
+        for (List<SwapMoveDto> moves : report.getCycles()) {
+            List<Long> ids = new ArrayList<>();
+            for (SwapMoveDto move : moves) {
+                ids.add(move.getRequestId());
+            }
+            if (Set.copyOf(ids).equals(Set.copyOf(requestIds))) {
+                return ids;
+            }
+        }
+        return null;
+    }
+
+    private Long roomOf(Student student) {
+        return jdbcTemplate.queryForObject("SELECT room_id FROM students WHERE id = ?", Long.class, student.getId());
+    }
+
+    private String requestStatus(Long requestId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM room_booking_requests WHERE id = ?", String.class, requestId);
+    }
+
+    // Student i lives in room i and has a waitlisted request for room i + 1 (mod 3); every room is full
+    private static class Cycle {
+        private final List<Room> rooms = new ArrayList<>();
+        private final List<Student> students = new ArrayList<>();
+        private final List<Long> requestIds = new ArrayList<>();
+
+        Cycle(TestData data) {
+            for (int i = 0; i < 3; i++) {
+                Room room = data.room(1);
+                rooms.add(room);
+                students.add(data.student(room));
+            }
+            for (int i = 0; i < 3; i++) {
+                requestIds.add(data.bookingRequest(students.get(i), rooms.get((i + 1) % 3), RoomBookingRequest.Status.WAITLISTED).getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hostel.service;
+
+import com.hostel.TestData;
+import com.hostel.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The scheduled run fills every missing student row, a chunk per statement, and leaves other accounts alone
+@SpringBootTest(properties = "students.reconcile.batch-size=2")
+@ActiveProfiles("test")
+class StudentReconciliationServiceTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private StudentReconciliationService studentReconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcileCreatesOneRowPerStudentAccountInChunks() {
+        TestData data = new TestData(context);
+        // Rows missing from earlier tests do not count
+        studentReconciliationService.reconcile();
+        List<User> accounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            accounts.add(data.studentAccount());
+        }
+        User admin = data.admin();
+
+        assertEquals(5, studentReconciliationService.reconcile());
+        assertEquals(0, studentReconciliationService.reconcile());
+
+        for (User account : accounts) {
+            assertEquals(1, rows(account));
+        }
+        assertEquals(0, rows(admin));
+    }
+
+    private int rows(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE user_id = ?", Integer.class, user.getId());
+    }
+}
@@ -0,0 +1,63 @@
+package com.hostel.service;
+
+import com.hostel.TestData;
+import com.hostel.entity.Room;
+import com.hostel.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    @Autowired
+    private RoomOccupancyIndex roomOccupancyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletingAPlacedStudentClosesTheirAssignment() {
+        TestData data = new TestData(context);
+        Room room = data.room(2);
+        Student student = data.student(null);
+        assertEquals(RoomAllocationService.Status.ALLOCATED,
+                roomAllocationService.allocate(room.getId(), student.getId()).getStatus());
+
+        assertTrue(userService.deleteUser(student.getUser().getId()));
+
+        List<Map<String, Object>> history = jdbcTemplate.queryForList(
+                "SELECT room_id, assigned_at, vacated_at FROM room_assignment_history WHERE student_id = ?", student.getId());
+        assertEquals(1, history.size());
+        assertEquals(room.getId(), ((Number) history.get(0).get("room_id")).longValue());
+        assertNotNull(history.get(0).get("assigned_at"));
+        assertNotNull(history.get(0).get("vacated_at"));
+        assertEquals(0, roomOccupancyIndex.verifyAndRebuild().get("mismatches"));
+    }
+
+    @Test
+    void deletingAnUnknownUserReportsIt() {
+        assertFalse(userService.deleteUser(-1L));
+    }
+}
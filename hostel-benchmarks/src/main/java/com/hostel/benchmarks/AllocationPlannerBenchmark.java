@@ -0,0 +1,58 @@
+package com.hostel.benchmarks;
+
+import com.hostel.service.AllocationPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Plan computation of the bulk auto-allocation (no database): `students` waiting students against
+// `rooms` rooms of capacity 1-4, about a third of them already partially occupied.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationPlannerBenchmark {
+
+    @Param({"50000"})
+    public int students;
+
+    @Param({"15000"})
+    public int rooms;
+
+    private long[] studentIds;
+    private int[] capacities;
+    private int[] occupancies;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        studentIds = new long[students];
+        for (int i = 0; i < students; i++) {
+            studentIds[i] = i + 1;
+        }
+        capacities = new int[rooms];
+        occupancies = new int[rooms];
+        for (int i = 0; i < rooms; i++) {
+            capacities[i] = 1 + random.nextInt(4);
+            occupancies[i] = random.nextInt(3) == 0 ? random.nextInt(capacities[i] + 1) : 0;
+        }
+    }
+
+    @Benchmark
+    public AllocationPlanner.Plan plan() {
+        return AllocationPlanner.plan(studentIds, capacities, occupancies);
+    }
+}
@@ -0,0 +1,35 @@
+package com.hostel.benchmarks;
+
+import com.hostel.HostelBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Boots the real backend with the "perf" profile (embedded H2 plus the synthetic population from
+// PerfDataGenerator). -Dbench.scale scales the profile's default population (default 0.1,
+// i.e. 1200 rooms, 4500 students and 20000 booking and maintenance requests each).
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    public static ConfigurableApplicationContext start() {
+        double scale = Double.parseDouble(System.getProperty("bench.scale", "0.1"));
+        return new SpringApplicationBuilder(HostelBackendApplication.class)
+                // Command-line arguments so these win over the profile's properties files
+                .run(
+                        "--spring.profiles.active=perf",
+                        "--server.port=0",
+                        "--spring.devtools.restart.enabled=false",
+                        "--perf.data.users=" + scaled(50000, scale),
+                        "--perf.data.admins=" + Math.max(1, scaled(20, scale)),
+                        "--perf.data.students=" + scaled(45000, scale),
+                        "--perf.data.rooms=" + scaled(12000, scale),
+                        "--perf.data.booking-requests=" + scaled(200000, scale),
+                        "--perf.data.maintenance-requests=" + scaled(200000, scale),
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.hostel=WARN");
+    }
+
+    private static int scaled(int value, double scale) {
+        return (int) Math.round(value * scale);
+    }
+}
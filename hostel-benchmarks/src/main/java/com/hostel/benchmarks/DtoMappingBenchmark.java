@@ -0,0 +1,81 @@
+package com.hostel.benchmarks;
+
+import com.hostel.service.MaintenanceRequestService;
+import com.hostel.service.RoomBookingRequestService;
+import com.hostel.service.RoomService;
+import com.hostel.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Service-level list building (queries plus DTO mapping) against the seeded embedded database.
+// Each call runs in a read-only transaction, standing in for the open-session-in-view a web request gets.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private RoomService roomService;
+    private StudentService studentService;
+    private RoomBookingRequestService roomBookingRequestService;
+    private MaintenanceRequestService maintenanceRequestService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        roomService = context.getBean(RoomService.class);
+        studentService = context.getBean(StudentService.class);
+        roomBookingRequestService = context.getBean(RoomBookingRequestService.class);
+        maintenanceRequestService = context.getBean(MaintenanceRequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object allRooms() {
+        return readOnly.execute(status -> roomService.getAllRooms());
+    }
+
+    @Benchmark
+    public Object roomsFirstPage() {
+        return readOnly.execute(status -> roomService.getRoomsPage(null, 50, null));
+    }
+
+    @Benchmark
+    public Object allStudents() {
+        return readOnly.execute(status -> studentService.getAllStudents());
+    }
+
+    @Benchmark
+    public Object allBookingRequests() {
+        return readOnly.execute(status -> roomBookingRequestService.getAllBookingRequests());
+    }
+
+    @Benchmark
+    public Object allMaintenanceRequests() {
+        return readOnly.execute(status -> maintenanceRequestService.getAllMaintenanceRequests());
+    }
+}
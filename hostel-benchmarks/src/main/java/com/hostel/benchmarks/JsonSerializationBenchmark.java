@@ -0,0 +1,64 @@
+package com.hostel.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.RoomDto;
+import com.hostel.dto.StudentDto;
+import com.hostel.dto.StudentSummaryDto;
+import com.hostel.dto.UserDisplayDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of writing the admin list payloads, using the same ObjectMapper setup Spring MVC builds
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<RoomDto> rooms;
+    private List<StudentDto> students;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        rooms = new ArrayList<>(size);
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserDisplayDto user = new UserDisplayDto((long) i, "Student " + i, "student" + i + "@bench.hostel", "STUDENT");
+            List<StudentSummaryDto> occupants = List.of(new StudentSummaryDto((long) i, user));
+            RoomDto room = new RoomDto((long) i, "B" + i, 2, false, occupants);
+            rooms.add(room);
+            students.add(new StudentDto((long) i, user, new RoomDto((long) i, "B" + i, 2, false)));
+        }
+    }
+
+    @Benchmark
+    public byte[] roomDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(rooms);
+    }
+
+    @Benchmark
+    public byte[] studentDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(students);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hostel.benchmarks;
+
+import com.hostel.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Token generation and verification. legacyTripleParse reproduces what the filter did per
+// request before verification was cached: rebuild key and parser and parse the token three times.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "MySuperSecureJwtSecretKeyForHS512AlgorithmWhichIsDefinitelyLongEnough123456";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = newJwtUtil(300L);
+        // A zero TTL makes every cache lookup miss
+        uncachedJwtUtil = newJwtUtil(0L);
+        token = cachedJwtUtil.generateToken("student1@bench.hostel", "STUDENT", 1001L, 1001L);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncachedJwtUtil.generateToken("student1@bench.hostel", "STUDENT", 1001L, 1001L);
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Object legacyTripleParse() {
+        Claims first = legacyParse(token);
+        Claims second = legacyParse(token);
+        Claims third = legacyParse(token);
+        return first.getSubject().equals(second.getSubject()) && third.getExpiration() != null;
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtUtil newJwtUtil(long verifiedCacheTtlSeconds) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 1024);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheTtlSeconds", verifiedCacheTtlSeconds);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+}
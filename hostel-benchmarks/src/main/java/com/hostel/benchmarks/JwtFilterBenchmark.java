@@ -0,0 +1,88 @@
+package com.hostel.benchmarks;
+
+import com.hostel.config.PerfDataGenerator;
+import com.hostel.security.ExpiringCache;
+import com.hostel.security.JwtFilter;
+import com.hostel.security.JwtUtil;
+import com.hostel.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JwtFilter end to end, reported as requests per second through the filter.
+// stateless=false is the old behaviour (user lookup on every request), true builds the principal
+// from claims; verifiedCache toggles the recently-verified token cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    @Param({"true", "false"})
+    public boolean verifiedCache;
+
+    private ConfigurableApplicationContext context;
+    private JwtFilter jwtFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jwtFilter = context.getBean(JwtFilter.class);
+        ReflectionTestUtils.setField(jwtFilter, "stateless", stateless);
+
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        if (!verifiedCache) {
+            ReflectionTestUtils.setField(jwtUtil, "verifiedTokens", new ExpiringCache<String, VerifiedToken>(0, 1));
+        }
+        String email = PerfDataGenerator.studentEmail(0);
+        Map<String, Object> ids = context.getBean(JdbcTemplate.class).queryForMap(
+                "SELECT u.id AS user_id, s.id AS student_id FROM users u JOIN students s ON s.user_id = u.id WHERE u.email = ?", email);
+        authorization = "Bearer " + jwtUtil.generateToken(email, "STUDENT",
+                ((Number) ids.get("user_id")).longValue(), ((Number) ids.get("student_id")).longValue());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/rooms");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtFilter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
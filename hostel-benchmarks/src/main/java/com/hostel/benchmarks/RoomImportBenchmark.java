@@ -0,0 +1,102 @@
+package com.hostel.benchmarks;
+
+import com.hostel.dto.RoomDto;
+import com.hostel.service.ImportRowReader;
+import com.hostel.service.RoomImportService;
+import com.hostel.service.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Creating a block of `rooms` new rooms: the bulk import from a CSV or JSON body against the
+// one-room-per-call createRoom path it replaces. Every invocation uses fresh room numbers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RoomImportBenchmark {
+
+    @Param({"csv", "json", "createRoom"})
+    public String mode;
+
+    @Param({"10000"})
+    public int rooms;
+
+    private ConfigurableApplicationContext context;
+    private RoomImportService roomImportService;
+    private RoomService roomService;
+    private int invocation;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        roomImportService = context.getBean(RoomImportService.class);
+        roomService = context.getBean(RoomService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBlock() {
+        invocation++;
+        if (mode.equals("createRoom")) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(rooms * 32);
+        if (mode.equals("csv")) {
+            text.append("roomNumber,capacity\n");
+            for (int i = 0; i < rooms; i++) {
+                text.append(roomNumber(i)).append(',').append(capacity(i)).append('\n');
+            }
+        } else {
+            text.append('[');
+            for (int i = 0; i < rooms; i++) {
+                text.append(i > 0 ? "," : "")
+                        .append("{\"roomNumber\":\"").append(roomNumber(i)).append("\",\"capacity\":").append(capacity(i)).append('}');
+            }
+            text.append(']');
+        }
+        body = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createRooms() {
+        if (mode.equals("createRoom")) {
+            for (int i = 0; i < rooms; i++) {
+                roomService.createRoom(new RoomDto(null, roomNumber(i), capacity(i), false));
+            }
+            return null;
+        }
+        ImportRowReader.Format format = mode.equals("csv") ? ImportRowReader.Format.CSV : ImportRowReader.Format.JSON;
+        return roomImportService.importRooms(new ByteArrayInputStream(body), format);
+    }
+
+    private String roomNumber(int i) {
+        return "IMP" + invocation + "-" + i;
+    }
+
+    private static int capacity(int i) {
+        return 1 + i % 4;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hostel.benchmarks;
+
+import com.hostel.service.SwapCycleFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Swap cycle search over open room requests (no database): `requests` requests from students spread over
+// `rooms` rooms, each asking for a random other room, about one student in ten with a second request.
+// Scaling `requests` (and `rooms` with it) should scale the time linearly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwapCycleFinderBenchmark {
+
+    @Param({"10000", "50000"})
+    public int requests;
+
+    @Param({"15000"})
+    public int rooms;
+
+    private int students;
+    private int[] from;
+    private int[] to;
+    private int[] student;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        from = new int[requests];
+        to = new int[requests];
+        student = new int[requests];
+        int[] studentRoom = new int[requests];
+        for (int e = 0; e < requests; e++) {
+            if (students > 0 && random.nextInt(10) == 0) {
+                student[e] = random.nextInt(students);
+            } else {
+                student[e] = students;
+                studentRoom[students++] = random.nextInt(rooms);
+            }
+            from[e] = studentRoom[student[e]];
+            int target = random.nextInt(rooms - 1);
+            to[e] = target >= from[e] ? target + 1 : target;
+        }
+    }
+
+    @Benchmark
+    public SwapCycleFinder.Result find() {
+        return SwapCycleFinder.find(rooms, students, from, to, student);
+    }
+}
@@ -41,10 +41,10 @@ const AdminDashboard = () => {
             setMessage('');
             
             const results = await Promise.allSettled([
-                api.get('/admin/rooms'),
-                api.get('/admin/students'),
-                api.get('/admin/room-booking-requests'),
-                api.get('/admin/maintenance-requests')
+                api.get('/admin/rooms', { params: { unpaged: true } }),
+                api.get('/admin/students', { params: { unpaged: true } }),
+                api.get('/admin/room-booking-requests', { params: { unpaged: true } }),
+                api.get('/admin/maintenance-requests', { params: { unpaged: true } })
             ]);
 
             if (results[0].status === 'fulfilled') {
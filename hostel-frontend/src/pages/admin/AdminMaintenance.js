@@ -21,7 +21,7 @@ const AdminMaintenance = () => {
     const fetchRequests = async () => {
         try {
             setLoading(true);
-            const response = await api.get('/admin/maintenance-requests');
+            const response = await api.get('/admin/maintenance-requests', { params: { unpaged: true } });
             if (response.status === 200) {
                 setRequests(response.data);
                 setFilteredRequests(response.data);
@@ -21,7 +21,7 @@ const AdminRoomChanges = () => {
     const fetchRequests = async () => {
         try {
             setLoading(true);
-            const response = await api.get('/admin/room-booking-requests');
+            const response = await api.get('/admin/room-booking-requests', { params: { unpaged: true } });
             if (response.status === 200) {
                 setRequests(response.data);
                 setFilteredRequests(response.data);
@@ -35,8 +35,8 @@ const AdminRooms = () => {
         try {
             setLoading(true);
             const [roomsRes, studentsRes] = await Promise.all([
-                api.get('/admin/rooms'),
-                api.get('/admin/students')
+                api.get('/admin/rooms', { params: { unpaged: true } }),
+                api.get('/admin/students', { params: { unpaged: true } })
             ]);
 
             if (roomsRes.status === 200) {
@@ -16,7 +16,7 @@ const AdminStudents = () => {
     const fetchStudents = async () => {
         try {
             setLoading(true);
-            const response = await api.get('/admin/students');
+            const response = await api.get('/admin/students', { params: { unpaged: true } });
             if (response.status === 200) {
                 setStudents(response.data);
                 setFilteredStudents(response.data);
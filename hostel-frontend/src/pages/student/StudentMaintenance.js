@@ -107,7 +107,8 @@ const StudentMaintenance = () => {
                                         <td className="px-4 py-3">
                                             <span className={`px-2 py-1 rounded-full text-[10px] font-bold uppercase ${
                                                 req.status === 'COMPLETED' ? 'bg-green-100 text-green-700' : 
-                                                req.status === 'IN_PROGRESS' ? 'bg-blue-100 text-blue-700' : 'bg-amber-100 text-amber-700'
+                                                req.status === 'IN_PROGRESS' ? 'bg-blue-100 text-blue-700' :
+                                                req.status === 'CANCELLED' ? 'bg-gray-100 text-gray-600' : 'bg-amber-100 text-amber-700'
                                             }`}>
                                                 {req.status}
                                             </span>
@@ -116,7 +117,7 @@ const StudentMaintenance = () => {
                                             {new Date(req.createdAt).toLocaleDateString()}
                                         </td>
                                         <td className="px-4 py-3 text-sm text-gray-600">
-                                            {req.adminRemarks || '-'}
+                                            {req.remarks || '-'}
                                         </td>
                                     </tr>
                                 ))
@@ -1,10 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { Home, RefreshCw, X, AlertCircle } from 'lucide-react';
 import api from '../../services/api';
+import { subscribeRoomAvailability } from '../../services/roomAvailability';
 
 const StudentRoomChange = () => {
     const [studentInfo, setStudentInfo] = useState(null);
-    const [allRooms, setAllRooms] = useState([]);
+    // Every room by id, kept current by the live availability stream
+    const [roomsById, setRoomsById] = useState({});
     const [roomBookingRequests, setRoomBookingRequests] = useState([]);
     const [loading, setLoading] = useState(true);
     const [message, setMessage] = useState('');
@@ -15,6 +17,34 @@ const StudentRoomChange = () => {
         fetchData();
     }, []);
 
+    useEffect(() => {
+        const unsubscribe = subscribeRoomAvailability(
+            (rooms) => {
+                const byId = {};
+                rooms.forEach(room => { byId[room.roomId] = room; });
+                setRoomsById(byId);
+            },
+            (changes) => {
+                setRoomsById(current => {
+                    const next = { ...current };
+                    changes.forEach(room => {
+                        if (room.removed) {
+                            delete next[room.roomId];
+                        } else {
+                            next[room.roomId] = room;
+                        }
+                    });
+                    return next;
+                });
+            }
+        );
+        return unsubscribe;
+    }, []);
+
+    const allRooms = Object.values(roomsById)
+        .filter(room => room.occupancy < room.capacity)
+        .sort((a, b) => a.roomId - b.roomId);
+
     const fetchData = async () => {
         try {
             setLoading(true);
@@ -22,14 +52,7 @@ const StudentRoomChange = () => {
             if (profileRes.status === 200) {
                 setStudentInfo(profileRes.data);
                 
-                const [roomsRes, bookingsRes] = await Promise.all([
-                    api.get('/student/rooms'),
-                    api.get(`/student/room-booking-requests?studentId=${profileRes.data.id}`)
-                ]);
-
-                if (roomsRes.status === 200) {
-                    setAllRooms(roomsRes.data.filter(r => r.students?.length < r.capacity));
-                }
+                const bookingsRes = await api.get(`/student/room-booking-requests?studentId=${profileRes.data.id}`);
                 if (bookingsRes.status === 200) {
                     setRoomBookingRequests(bookingsRes.data);
                 }
@@ -44,8 +67,8 @@ const StudentRoomChange = () => {
 
     const handleBookRoom = async (roomId) => {
         try {
-            await api.post(`/student/room-booking-requests?studentId=${studentInfo.id}&roomId=${roomId}`);
-            setMessage('Room change request submitted successfully');
+            const response = await api.post(`/student/room-booking-requests?studentId=${studentInfo.id}&roomId=${roomId}`);
+            setMessage(`Room change request #${response.data.ticketId} queued (position ${response.data.position})`);
             setShowBookingModal(false);
             fetchData();
         } catch (error) {
@@ -87,13 +110,13 @@ const StudentRoomChange = () => {
                     </div>
                     <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4">
                         {allRooms.map(room => (
-                            <div key={room.id} className="p-4 border rounded-xl hover:shadow-md transition-shadow group">
+                            <div key={room.roomId} className="p-4 border rounded-xl hover:shadow-md transition-shadow group">
                                 <div className="flex justify-between items-start mb-2">
                                     <div className="bg-indigo-100 p-2 rounded-lg group-hover:bg-indigo-600 transition-colors">
                                         <Home className="w-5 h-5 text-indigo-600 group-hover:text-white" />
                                     </div>
                                     <span className="text-xs font-bold text-indigo-600 bg-indigo-50 px-2 py-1 rounded">
-                                        {room.capacity - (room.students?.length || 0)} slots left
+                                        {room.capacity - room.occupancy} slots left
                                     </span>
                                 </div>
                                 <h4 className="font-bold text-gray-900">Room {room.roomNumber}</h4>
@@ -103,14 +126,14 @@ const StudentRoomChange = () => {
                                         setSelectedRoom(room);
                                         setShowBookingModal(true);
                                     }}
-                                    disabled={studentInfo?.room?.id === room.id}
+                                    disabled={studentInfo?.room?.id === room.roomId}
                                     className={`w-full py-2 rounded-lg text-sm font-medium transition-colors ${
-                                        studentInfo?.room?.id === room.id
+                                        studentInfo?.room?.id === room.roomId
                                             ? 'bg-gray-100 text-gray-400 cursor-not-allowed'
                                             : 'bg-indigo-600 text-white hover:bg-indigo-700'
                                     }`}
                                 >
-                                    {studentInfo?.room?.id === room.id ? 'Current Room' : 'Request Change'}
+                                    {studentInfo?.room?.id === room.roomId ? 'Current Room' : 'Request Change'}
                                 </button>
                             </div>
                         ))}
@@ -137,7 +160,8 @@ const StudentRoomChange = () => {
                                             <td className="px-4 py-3">
                                                 <span className={`px-2 py-1 rounded-full text-[10px] font-bold uppercase ${
                                                     req.status === 'APPROVED' ? 'bg-green-100 text-green-700' : 
-                                                    req.status === 'REJECTED' ? 'bg-red-100 text-red-700' : 'bg-amber-100 text-amber-700'
+                                                    req.status === 'REJECTED' ? 'bg-red-100 text-red-700' :
+                                                    req.status === 'CANCELLED' ? 'bg-gray-100 text-gray-600' : 'bg-amber-100 text-amber-700'
                                                 }`}>
                                                     {req.status}
                                                 </span>
@@ -187,7 +211,7 @@ const StudentRoomChange = () => {
                                     Cancel
                                 </button>
                                 <button
-                                    onClick={() => handleBookRoom(selectedRoom.id)}
+                                    onClick={() => handleBookRoom(selectedRoom.roomId)}
                                     className="flex-1 px-4 py-2 bg-indigo-600 text-white rounded-lg hover:bg-indigo-700 font-medium"
                                 >
                                     Submit Request
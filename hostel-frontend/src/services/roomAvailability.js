@@ -0,0 +1,86 @@
+import api from './api';
+
+const RECONNECT_DELAY_MS = 3000;
+
+// Live room availability from /student/rooms/availability (Server-Sent Events).
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// onSnapshot receives every room, onDelta only the rooms that changed; both as
+// [{ roomId, roomNumber, occupancy, capacity, removed }]. Returns a function that stops the feed.
+export const subscribeRoomAvailability = (onSnapshot, onDelta) => {
+    let controller = null;
+    let stopped = false;
+    let retryTimer = null;
+
+    const dispatch = (eventName, data) => {
+        if (!data) {
+            return;
+        }
+        const rooms = JSON.parse(data);
+        if (eventName === 'snapshot') {
+            onSnapshot(rooms);
+        } else if (eventName === 'delta') {
+            onDelta(rooms);
+        }
+    };
+
+    const connect = async () => {
+        controller = new AbortController();
+        try {
+            const response = await fetch(`${api.defaults.baseURL}/student/rooms/availability`, {
+                headers: {
+                    Accept: 'text/event-stream',
+                    Authorization: `Bearer ${localStorage.getItem('token')}`
+                },
+                signal: controller.signal
+            });
+            if (!response.ok) {
+                throw new Error(`Availability stream returned ${response.status}`);
+            }
+
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            let eventName = 'message';
+            let data = '';
+            for (;;) {
+                const { value, done } = await reader.read();
+                if (done) {
+                    break;
+                }
+                buffer += decoder.decode(value, { stream: true });
+                const lines = buffer.split('\n');
+                buffer = lines.pop();
+                for (const line of lines) {
+                    if (line === '') {
+                        // Blank line ends an event; comment-only events (heartbeats) carry no data
+                        dispatch(eventName, data);
+                        eventName = 'message';
+                        data = '';
+                    } else if (line.startsWith('event:')) {
+                        eventName = line.slice(6).trim();
+                    } else if (line.startsWith('data:')) {
+                        data += line.slice(5);
+                    }
+                }
+            }
+        } catch (error) {
+            if (stopped) {
+                return;
+            }
+            console.error('Room availability stream error:', error);
+        }
+        if (!stopped) {
+            retryTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+        }
+    };
+
+    connect();
+
+    return () => {
+        stopped = true;
+        clearTimeout(retryTimer);
+        if (controller) {
+            controller.abort();
+        }
+    };
+};
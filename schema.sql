@@ -26,6 +26,7 @@ CREATE TABLE students (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL UNIQUE,
     room_id BIGINT NULL,
+    assigned_at DATETIME NULL,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE SET NULL
 );
@@ -49,14 +50,84 @@ CREATE TABLE room_booking_requests (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     student_id BIGINT NOT NULL,
     room_id BIGINT NOT NULL,
-    status ENUM('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED') NOT NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED', 'QUEUED', 'WAITLISTED') NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     resolved_at TIMESTAMP NULL,
     admin_remarks TEXT,
+    waitlist_position BIGINT NULL,
+    pending_since TIMESTAMP NULL,
+    pending_flag TINYINT GENERATED ALWAYS AS (CASE WHEN status IN ('QUEUED', 'PENDING', 'WAITLISTED') THEN 1 END),
     FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
     FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE
 );
 
+-- Ended room assignments; the current ones are students.room_id and assigned_at. Plain id columns
+-- without foreign keys, so the history outlives the students and rooms it refers to.
+CREATE TABLE room_assignment_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL,
+    assigned_at DATETIME NULL,
+    vacated_at DATETIME NOT NULL,
+    checkout_run_id BIGINT NULL
+);
+
+-- End-of-term checkout runs; last_room_id commits with each chunk so an interrupted run resumes
+CREATE TABLE checkout_runs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    status ENUM('RUNNING', 'INTERRUPTED', 'COMPLETED', 'FAILED') NOT NULL,
+    started_at DATETIME NOT NULL,
+    finished_at DATETIME NULL,
+    total_rooms BIGINT NOT NULL,
+    rooms_processed BIGINT NOT NULL,
+    students_vacated BIGINT NOT NULL,
+    last_room_id BIGINT NULL,
+    message VARCHAR(255)
+);
+
+-- Composite indexes backing the keyset-paged admin lists (filter column, then the id sort key)
+CREATE INDEX idx_users_role_id ON users (role, id);
+CREATE INDEX idx_students_room_id ON students (room_id, id);
+CREATE INDEX idx_booking_status_id ON room_booking_requests (status, id);
+CREATE INDEX idx_booking_room_id ON room_booking_requests (room_id, id);
+CREATE INDEX idx_booking_room_status ON room_booking_requests (room_id, status);
+CREATE INDEX idx_booking_created_id ON room_booking_requests (created_at, id);
+CREATE INDEX idx_maintenance_status_id ON maintenance_requests (status, id);
+CREATE INDEX idx_maintenance_room_id ON maintenance_requests (room_id, id);
+CREATE INDEX idx_maintenance_created_id ON maintenance_requests (created_at, id);
+-- Oldest open requests first, for the expiry sweeper and the status lists sorted by creation time
+CREATE INDEX idx_booking_status_created ON room_booking_requests (status, created_at);
+CREATE INDEX idx_maintenance_status_created ON maintenance_requests (status, created_at);
+-- Assignment history: per room and per student, and whole-hostel as-of snapshots (recent points in time
+-- scan on vacated_at, old ones on assigned_at)
+CREATE INDEX idx_history_room_vacated ON room_assignment_history (room_id, vacated_at);
+CREATE INDEX idx_history_student_vacated ON room_assignment_history (student_id, vacated_at);
+CREATE INDEX idx_history_vacated_assigned ON room_assignment_history (vacated_at, assigned_at);
+CREATE INDEX idx_history_assigned_vacated ON room_assignment_history (assigned_at, vacated_at);
+
+-- Assignment history and checkout on a database created from an earlier version of this file: run the
+-- room_assignment_history and checkout_runs CREATE TABLE and idx_history_* statements above, and
+--   ALTER TABLE students ADD COLUMN assigned_at DATETIME NULL;
+-- Students placed before then keep assigned_at NULL, read as "assigned before history was recorded".
+
+-- Booking queue statuses on an existing database (Hibernate's ddl-auto=update does not widen the ENUM):
+--   ALTER TABLE room_booking_requests
+--       MODIFY status ENUM('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED', 'QUEUED', 'WAITLISTED') NOT NULL,
+--       MODIFY pending_flag TINYINT GENERATED ALWAYS AS (CASE WHEN status IN ('QUEUED', 'PENDING', 'WAITLISTED') THEN 1 END);
+
+-- One open (queued, pending or waitlisted) booking request per student and room; pending_flag is NULL once a request is resolved.
+-- On an existing database, cancel older duplicates first or the index cannot be created:
+--   UPDATE room_booking_requests r JOIN room_booking_requests newer
+--       ON newer.student_id = r.student_id AND newer.room_id = r.room_id
+--       AND newer.status = 'PENDING' AND newer.id > r.id
+--   SET r.status = 'CANCELLED', r.resolved_at = NOW()
+--   WHERE r.status = 'PENDING';
+CREATE UNIQUE INDEX uk_booking_pending ON room_booking_requests (student_id, room_id, pending_flag);
+
+-- One student row per account. A database created by Hibernate before the constraint was mapped lacks it;
+-- remove duplicate rows (keeping the lowest id) and then:
+--   ALTER TABLE students ADD CONSTRAINT uk_students_user_id UNIQUE (user_id);
+
 -- Insert sample admin user (password is 'admin123' hashed with BCrypt)
 INSERT INTO users (name, email, password, role) VALUES 
 ('Admin User', 'admin@hostel.com', '$2a$10$8.uXv37y3Z6W5rY6U1O3u.uXv37y3Z6W5rY6U1O3u.uXv37y3Z6W5', 'ADMIN');